@@ -1,5 +1,6 @@
 plugins {
   id("org.metaborg.gradle.config.java-library")
+  id("org.metaborg.gradle.config.junit-testing")
 }
 
 dependencies {
@@ -12,4 +13,6 @@ dependencies {
   compileOnly("org.checkerframework:checker-qual-android")
 
   annotationProcessor("org.derive4j:derive4j")
+
+  testCompileOnly("org.checkerframework:checker-qual-android")
 }
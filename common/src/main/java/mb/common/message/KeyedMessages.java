@@ -57,6 +57,16 @@ public class KeyedMessages implements Serializable {
         return messages.keySet();
     }
 
+    /**
+     * Gets the messages for given {@code resource}, which are empty if there are no messages for {@code resource}.
+     */
+    public Messages getMessages(@Nullable ResourceKey resource) {
+        if(!messages.containsKey(resource)) {
+            return Messages.of();
+        }
+        return Messages.copyOf(messages.get(resource));
+    }
+
 
     public boolean containsSeverity(Severity severity) {
         return messages.values().stream().flatMap(Collection::stream).anyMatch(
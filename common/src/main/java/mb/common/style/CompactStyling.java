@@ -0,0 +1,173 @@
+package mb.common.style;
+
+import mb.common.token.TokenStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * Compact styling, stored as parallel arrays of indices into a {@link TokenStream token stream} and style identifiers,
+ * instead of one {@link TokenStyle} object per styled token. {@link TokenStyle} objects are only created when {@link
+ * #getStylePerToken()} is called; use the indexed getters such as {@link #getStartOffset(int)} to avoid creating them.
+ *
+ * Each distinct style is stored once, and identified by a small integer {@link #getStyleId(int) identifier}, which is
+ * stored as one byte per styled token. Therefore, a compact styling supports at most {@link #maxStyleCount} distinct
+ * styles. Styles are distinguished by identity, so styles should be shared (for example by {@link StyleInterner}) to
+ * keep the number of distinct styles small.
+ */
+public class CompactStyling implements Styling {
+    public static final int maxStyleCount = 256;
+
+    private final TokenStream<?> tokens;
+    private final int size;
+    private final int[] tokenIndices;
+    private final byte[] styleIds;
+    private final Style[] styles;
+
+
+    private CompactStyling(TokenStream<?> tokens, int size, int[] tokenIndices, byte[] styleIds, Style[] styles) {
+        this.tokens = tokens;
+        this.size = size;
+        this.tokenIndices = tokenIndices;
+        this.styleIds = styleIds;
+        this.styles = styles;
+    }
+
+
+    @Override public ArrayList<TokenStyle> getStylePerToken() {
+        final ArrayList<TokenStyle> stylePerToken = new ArrayList<>(size);
+        for(int i = 0; i < size; ++i) {
+            stylePerToken.add(new TokenStyleImpl(tokens.get(tokenIndices[i]), styles[styleIds[i] & 0xFF]));
+        }
+        return stylePerToken;
+    }
+
+    @Override public int size() {
+        return size;
+    }
+
+    @Override public int getStartOffset(int index) {
+        checkIndex(index);
+        return tokens.getStartOffset(tokenIndices[index]);
+    }
+
+    @Override public int getEndOffset(int index) {
+        checkIndex(index);
+        return tokens.getEndOffset(tokenIndices[index]);
+    }
+
+    @Override public Style getStyle(int index) {
+        checkIndex(index);
+        return styles[styleIds[index] & 0xFF];
+    }
+
+    /**
+     * Gets the identifier of the style of the styled token at {@code index}, which can be used to look up the style
+     * with {@link #getStyleById(int)}, or to look up data precomputed per style in an array of size {@link
+     * #getStyleCount()}.
+     */
+    public int getStyleId(int index) {
+        checkIndex(index);
+        return styleIds[index] & 0xFF;
+    }
+
+    /**
+     * Gets the number of distinct styles in this styling. Style identifiers range from 0 to this number (exclusive).
+     */
+    public int getStyleCount() {
+        return styles.length;
+    }
+
+    public Style getStyleById(int id) {
+        return styles[id];
+    }
+
+
+    @Override public boolean equals(@Nullable Object o) {
+        if(this == o) return true;
+        if(o == null || getClass() != o.getClass()) return false;
+        final CompactStyling other = (CompactStyling) o;
+        return size == other.size &&
+            Arrays.equals(tokenIndices, other.tokenIndices) &&
+            Arrays.equals(styleIds, other.styleIds) &&
+            Arrays.equals(styles, other.styles) &&
+            tokens.equals(other.tokens);
+    }
+
+    @Override public int hashCode() {
+        int result = size;
+        result = 31 * result + Arrays.hashCode(tokenIndices);
+        result = 31 * result + Arrays.hashCode(styleIds);
+        result = 31 * result + Arrays.hashCode(styles);
+        return result;
+    }
+
+    @Override public String toString() {
+        return "CompactStyling(" + getStylePerToken() + ')';
+    }
+
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for styling of size " + size);
+        }
+    }
+
+
+    /**
+     * Builder for compact stylings. Styled tokens must be added in order.
+     */
+    public static class Builder {
+        private final TokenStream<?> tokens;
+        private int size = 0;
+        private int[] tokenIndices;
+        private byte[] styleIds;
+        private final IdentityHashMap<Style, Integer> styleToId = new IdentityHashMap<>();
+        private final ArrayList<Style> styles = new ArrayList<>();
+
+
+        public Builder(TokenStream<?> tokens, int initialCapacity) {
+            this.tokens = tokens;
+            this.tokenIndices = new int[initialCapacity];
+            this.styleIds = new byte[initialCapacity];
+        }
+
+        public Builder(TokenStream<?> tokens) {
+            this(tokens, tokens.size());
+        }
+
+
+        /**
+         * Styles the token at {@code tokenIndex} in the token stream of this builder with {@code style}.
+         *
+         * @throws IllegalArgumentException When {@code style} would be distinct style number {@link #maxStyleCount} +
+         *                                  1.
+         */
+        public Builder add(int tokenIndex, Style style) {
+            if(size == tokenIndices.length) {
+                final int capacity = Math.max(16, size * 2);
+                tokenIndices = Arrays.copyOf(tokenIndices, capacity);
+                styleIds = Arrays.copyOf(styleIds, capacity);
+            }
+            @Nullable Integer id = styleToId.get(style);
+            if(id == null) {
+                if(styles.size() == maxStyleCount) {
+                    throw new IllegalArgumentException("Cannot add style '" + style + "'; compact styling supports at most " + maxStyleCount + " distinct styles");
+                }
+                id = styles.size();
+                styles.add(style);
+                styleToId.put(style, id);
+            }
+            tokenIndices[size] = tokenIndex;
+            styleIds[size] = (byte) (int) id;
+            ++size;
+            return this;
+        }
+
+        public CompactStyling build() {
+            return new CompactStyling(tokens, size, Arrays.copyOf(tokenIndices, size), Arrays.copyOf(styleIds, size), styles.toArray(new Style[0]));
+        }
+    }
+}
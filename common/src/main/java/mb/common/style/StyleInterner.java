@@ -0,0 +1,59 @@
+package mb.common.style;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+
+/**
+ * Interns styles and colors, such that equal styles and colors are represented by a single canonical instance. Styles
+ * created through the same interner can be compared and mapped by identity, and a set of styling rules only holds as
+ * many style objects as it has distinct styles.
+ *
+ * This interner is not thread-safe; it is intended to be used while creating styling rules.
+ */
+public class StyleInterner {
+    private final HashMap<Color, Color> colors = new HashMap<>();
+    private final HashMap<Style, Style> styles = new HashMap<>();
+
+
+    public StyleInterner() {
+        colors.put(Color.black, Color.black);
+        colors.put(Color.white, Color.white);
+    }
+
+
+    /**
+     * Gets the canonical instance of {@code color}.
+     */
+    public @Nullable Color color(@Nullable Color color) {
+        if(color == null) {
+            return null;
+        }
+        final @Nullable Color existing = colors.putIfAbsent(color, color);
+        return existing != null ? existing : color;
+    }
+
+    /**
+     * Gets the canonical instance of {@code style}. Styles are interned by equality, so {@code style} should implement
+     * {@link Object#equals(Object)} and {@link Object#hashCode()}, as {@link StyleImpl} does.
+     */
+    public Style style(Style style) {
+        final @Nullable Style existing = styles.putIfAbsent(style, style);
+        return existing != null ? existing : style;
+    }
+
+    /**
+     * Creates a style with the canonical instances of given colors, and returns its canonical instance.
+     */
+    public Style style(@Nullable Color color, @Nullable Color backgroundColor, boolean bold, boolean italic,
+        boolean underscore, boolean strikeout) {
+        return style(new StyleImpl(color(color), color(backgroundColor), bold, italic, underscore, strikeout));
+    }
+
+    /**
+     * @return Number of distinct styles interned by this interner.
+     */
+    public int getStyleCount() {
+        return styles.size();
+    }
+}
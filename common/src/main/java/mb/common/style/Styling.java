@@ -2,8 +2,29 @@ package mb.common.style;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.List;
 
 public interface Styling extends Serializable {
     ArrayList<TokenStyle> getStylePerToken();
+
+
+    /// Indexed access to styled tokens, which implementations may provide without creating token style objects.
+
+    default int size() {
+        return getStylePerToken().size();
+    }
+
+    default int getStartOffset(int index) {
+        return getStylePerToken().get(index).getToken().getRegion().getStartOffset();
+    }
+
+    /**
+     * Gets the exclusive end offset of the styled token at {@code index}.
+     */
+    default int getEndOffset(int index) {
+        return getStylePerToken().get(index).getToken().getRegion().getEndOffset();
+    }
+
+    default Style getStyle(int index) {
+        return getStylePerToken().get(index).getStyle();
+    }
 }
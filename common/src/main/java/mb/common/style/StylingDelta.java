@@ -0,0 +1,178 @@
+package mb.common.style;
+
+import mb.common.region.Region;
+
+/**
+ * Difference between a previous styling of a text and a new {@link #getStyling() styling} of a changed version of that
+ * text. All styles in the new text outside of the {@link #getRegion() damaged region} are equal to the styles of the
+ * previous text, where styles after the damaged region are shifted by the difference in text length. Only the styled
+ * tokens of the new styling in the damaged region, from {@link #getStartIndex()} to {@link #getEndIndex()}, need to be
+ * restyled, after resetting the styles in the damaged region.
+ */
+public class StylingDelta {
+    private final Styling styling;
+    private final int textLength;
+    private final boolean full;
+    private final int startIndex;
+    private final int endIndex;
+    private final Region region;
+
+
+    private StylingDelta(Styling styling, int textLength, boolean full, int startIndex, int endIndex, Region region) {
+        this.styling = styling;
+        this.textLength = textLength;
+        this.full = full;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.region = region;
+    }
+
+    /**
+     * Creates a delta that restyles the entire text with given {@code styling}.
+     */
+    public static StylingDelta full(Styling styling, int textLength) {
+        return new StylingDelta(styling, textLength, true, 0, styling.size(), Region.fromOffsets(0, textLength));
+    }
+
+    /**
+     * Creates a delta from {@code previous} styling of {@code previousText} to {@code styling} of {@code text}, where
+     * the changed region of the text is determined by comparing the texts.
+     */
+    public static StylingDelta compute(Styling previous, String previousText, Styling styling, String text) {
+        final int previousLength = previousText.length();
+        final int length = text.length();
+        final int minLength = Math.min(previousLength, length);
+        int prefix = 0;
+        while(prefix < minLength && previousText.charAt(prefix) == text.charAt(prefix)) {
+            ++prefix;
+        }
+        int suffix = 0;
+        while(suffix < minLength - prefix && previousText.charAt(previousLength - 1 - suffix) == text.charAt(length - 1 - suffix)) {
+            ++suffix;
+        }
+        return compute(previous, previousLength, styling, length, Region.fromOffsets(prefix, length - suffix));
+    }
+
+    /**
+     * Creates a delta from {@code previous} styling of a text of {@code previousTextLength} to {@code styling} of the
+     * changed text of {@code textLength}.
+     *
+     * @param changedRegion Region in the changed text that covers all changes, such that text before it is unchanged,
+     *                      and text after it is unchanged but shifted by the difference in text length.
+     */
+    public static StylingDelta compute(Styling previous, int previousTextLength, Styling styling, int textLength, Region changedRegion) {
+        final int lengthDelta = textLength - previousTextLength;
+        final int changedStart = changedRegion.getStartOffset();
+        final int changedEnd = changedRegion.getEndOffset();
+        final int previousSize = previous.size();
+        final int size = styling.size();
+        final int minSize = Math.min(previousSize, size);
+
+        // Equal styles that end before the change.
+        int prefix = 0;
+        while(prefix < minSize && styling.getEndOffset(prefix) <= changedStart && equalStyle(previous, prefix, styling, prefix, 0)) {
+            ++prefix;
+        }
+        // Equal styles, shifted by the length difference, that start after the change.
+        int suffix = 0;
+        while(suffix < minSize - prefix) {
+            final int previousIndex = previousSize - 1 - suffix;
+            final int index = size - 1 - suffix;
+            if(styling.getStartOffset(index) < changedEnd || !equalStyle(previous, previousIndex, styling, index, lengthDelta)) {
+                break;
+            }
+            ++suffix;
+        }
+
+        // The damaged region covers the change, and the styles that are not equal. Previous styles that are not equal
+        // may lie before or after the change, so they are conservatively included with and without shifting.
+        int start = changedStart;
+        int end = changedEnd;
+        if(prefix < size - suffix) {
+            start = Math.min(start, styling.getStartOffset(prefix));
+            end = Math.max(end, styling.getEndOffset(size - 1 - suffix));
+        }
+        if(prefix < previousSize - suffix) {
+            final int previousStart = previous.getStartOffset(prefix);
+            final int previousEnd = previous.getEndOffset(previousSize - 1 - suffix);
+            start = Math.min(start, Math.min(previousStart, previousStart + lengthDelta));
+            end = Math.max(end, Math.max(previousEnd, previousEnd + lengthDelta));
+        }
+        start = Math.max(0, Math.min(start, textLength));
+        end = Math.max(start, Math.min(end, textLength));
+
+        // Restyle all styles that overlap the damaged region, extending the region to cover them entirely.
+        int startIndex = prefix;
+        while(startIndex > 0 && styling.getEndOffset(startIndex - 1) > start) {
+            --startIndex;
+            start = Math.min(start, styling.getStartOffset(startIndex));
+        }
+        int endIndex = size - suffix;
+        while(endIndex < size && styling.getStartOffset(endIndex) < end) {
+            end = Math.max(end, styling.getEndOffset(endIndex));
+            ++endIndex;
+        }
+        return new StylingDelta(styling, textLength, false, startIndex, endIndex, Region.fromOffsets(start, end));
+    }
+
+    private static boolean equalStyle(Styling previous, int previousIndex, Styling styling, int index, int shift) {
+        return previous.getStartOffset(previousIndex) + shift == styling.getStartOffset(index) &&
+            previous.getEndOffset(previousIndex) + shift == styling.getEndOffset(index) &&
+            previous.getStyle(previousIndex).equals(styling.getStyle(index));
+    }
+
+
+    /**
+     * @return New styling.
+     */
+    public Styling getStyling() {
+        return styling;
+    }
+
+    /**
+     * @return Length of the text of the new styling.
+     */
+    public int getTextLength() {
+        return textLength;
+    }
+
+    /**
+     * @return True if this delta restyles the entire text, false otherwise.
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @return Index of the first styled token of the new styling in the damaged region.
+     */
+    public int getStartIndex() {
+        return startIndex;
+    }
+
+    /**
+     * @return Index after the last styled token of the new styling in the damaged region.
+     */
+    public int getEndIndex() {
+        return endIndex;
+    }
+
+    /**
+     * @return Damaged region in the text of the new styling.
+     */
+    public Region getRegion() {
+        return region;
+    }
+
+    /**
+     * @return True if no styles need to be changed, false otherwise.
+     */
+    public boolean isEmpty() {
+        return region.length() == 0 && startIndex == endIndex;
+    }
+
+
+    @Override public String toString() {
+        return "StylingDelta(" + (full ? "full" : region + ", styles " + startIndex + "-" + endIndex) + ")";
+    }
+}
@@ -0,0 +1,283 @@
+package mb.common.token;
+
+import mb.common.region.Region;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact, immutable stream of tokens, stored as parallel arrays of start offsets, end offsets, token type indices, and
+ * fragments, instead of one {@link Token} object per token. {@link Token} objects are only created as views when
+ * {@link #get(int) requested}; use the indexed getters such as {@link #getStartOffset(int)} to avoid creating them.
+ *
+ * Equality is defined on the offsets, types, and fragments of tokens. Consecutive tokens often share the same fragment,
+ * which is only compared once. The hash code is only computed from the offsets and types of tokens, as hashing AST
+ * fragments traverses entire ASTs, and is cached when it is first requested.
+ *
+ * @param <F> Type of token fragments.
+ */
+public class TokenStream<F> implements Iterable<Token<F>>, Serializable {
+    private static final TokenType[] types = {
+        TokenTypes.identifier(),
+        TokenTypes.string(),
+        TokenTypes.number(),
+        TokenTypes.keyword(),
+        TokenTypes.operator(),
+        TokenTypes.layout(),
+        TokenTypes.unknown()
+    };
+    private static final TokenType.Cases<Byte> typeIndex = new TokenType.Cases<Byte>() {
+        @Override public Byte identifier() { return 0; }
+
+        @Override public Byte string() { return 1; }
+
+        @Override public Byte number() { return 2; }
+
+        @Override public Byte keyword() { return 3; }
+
+        @Override public Byte operator() { return 4; }
+
+        @Override public Byte layout() { return 5; }
+
+        @Override public Byte unknown() { return 6; }
+    };
+
+    private final int size;
+    private final int[] startOffsets;
+    private final int[] endOffsets;
+    private final byte[] typeIndices;
+    private final @Nullable Object[] fragments;
+    private transient int hash; // Cached hash code, or 0 if it has not been computed yet.
+
+
+    private TokenStream(int size, int[] startOffsets, int[] endOffsets, byte[] typeIndices, @Nullable Object[] fragments) {
+        this.size = size;
+        this.startOffsets = startOffsets;
+        this.endOffsets = endOffsets;
+        this.typeIndices = typeIndices;
+        this.fragments = fragments;
+    }
+
+    public static <F> TokenStream<F> of(Iterable<? extends Token<F>> tokens) {
+        final Builder<F> builder = new Builder<>();
+        for(Token<F> token : tokens) {
+            builder.add(token);
+        }
+        return builder.build();
+    }
+
+    public static <F> TokenStream<F> of() {
+        return new Builder<F>(0).build();
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getStartOffset(int index) {
+        checkIndex(index);
+        return startOffsets[index];
+    }
+
+    /**
+     * Gets the exclusive end offset of the token at {@code index}, consistent with {@link Region#getEndOffset()}.
+     */
+    public int getEndOffset(int index) {
+        checkIndex(index);
+        return endOffsets[index];
+    }
+
+    public Region getRegion(int index) {
+        checkIndex(index);
+        return Region.fromOffsets(startOffsets[index], endOffsets[index]);
+    }
+
+    public TokenType getType(int index) {
+        checkIndex(index);
+        return types[typeIndices[index]];
+    }
+
+    @SuppressWarnings("unchecked") public @Nullable F getFragment(int index) {
+        checkIndex(index);
+        return (F) fragments[index];
+    }
+
+    /**
+     * Gets the index of the first token that ends after {@code offset}, or {@link #size()} if there is no such token.
+     * Tokens are ordered, so this is found with a binary search.
+     */
+    public int indexOfFirstTokenEndingAfter(int offset) {
+        int low = 0;
+        int high = size;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(endOffsets[mid] <= offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Creates a {@link Token} view of the token at {@code index}.
+     */
+    public Token<F> get(int index) {
+        return new TokenImpl<>(getType(index), getRegion(index), getFragment(index));
+    }
+
+    /**
+     * Returns an unmodifiable list view of this token stream, which creates {@link Token} views on demand.
+     */
+    public List<Token<F>> asList() {
+        return new AbstractList<Token<F>>() {
+            @Override public Token<F> get(int index) {
+                return TokenStream.this.get(index);
+            }
+
+            @Override public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override public Iterator<Token<F>> iterator() {
+        return new Iterator<Token<F>>() {
+            private int index = 0;
+
+            @Override public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override public Token<F> next() {
+                if(index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+
+    @Override public boolean equals(@Nullable Object obj) {
+        if(this == obj) return true;
+        if(obj == null || getClass() != obj.getClass()) return false;
+        final TokenStream<?> other = (TokenStream<?>) obj;
+        if(size != other.size) return false;
+        if(hash != 0 && other.hash != 0 && hash != other.hash) return false;
+        return Arrays.equals(startOffsets, other.startOffsets) &&
+            Arrays.equals(endOffsets, other.endOffsets) &&
+            Arrays.equals(typeIndices, other.typeIndices) &&
+            equalFragments(other);
+    }
+
+    private boolean equalFragments(TokenStream<?> other) {
+        for(int i = 0; i < size; ++i) {
+            final @Nullable Object fragment = fragments[i];
+            final @Nullable Object otherFragment = other.fragments[i];
+            if(fragment == otherFragment) continue;
+            if(i > 0 && fragment == fragments[i - 1] && otherFragment == other.fragments[i - 1]) {
+                continue; // Same fragments as the previous token, which were already found to be equal.
+            }
+            if(fragment == null || !fragment.equals(otherFragment)) return false;
+        }
+        return true;
+    }
+
+    @Override public int hashCode() {
+        int result = hash;
+        if(result == 0) {
+            result = size;
+            result = 31 * result + Arrays.hashCode(startOffsets);
+            result = 31 * result + Arrays.hashCode(endOffsets);
+            result = 31 * result + Arrays.hashCode(typeIndices);
+            hash = result;
+        }
+        return result;
+    }
+
+    @Override public String toString() {
+        final StringBuilder sb = new StringBuilder("TokenStream[");
+        for(int i = 0; i < size; ++i) {
+            if(i > 0) sb.append(", ");
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for token stream of size " + size);
+        }
+    }
+
+
+    /**
+     * Builder for token streams. Tokens must be added in order.
+     */
+    public static class Builder<F> {
+        private int size = 0;
+        private int[] startOffsets;
+        private int[] endOffsets;
+        private byte[] typeIndices;
+        private @Nullable Object[] fragments;
+
+
+        public Builder(int initialCapacity) {
+            this.startOffsets = new int[initialCapacity];
+            this.endOffsets = new int[initialCapacity];
+            this.typeIndices = new byte[initialCapacity];
+            this.fragments = new Object[initialCapacity];
+        }
+
+        public Builder() {
+            this(16);
+        }
+
+
+        /**
+         * Adds a token with given type, start offset, exclusive end offset, and fragment.
+         */
+        public Builder<F> add(TokenType type, int startOffset, int endOffset, @Nullable F fragment) {
+            if(size == startOffsets.length) {
+                final int capacity = Math.max(16, size * 2);
+                startOffsets = Arrays.copyOf(startOffsets, capacity);
+                endOffsets = Arrays.copyOf(endOffsets, capacity);
+                typeIndices = Arrays.copyOf(typeIndices, capacity);
+                fragments = Arrays.copyOf(fragments, capacity);
+            }
+            startOffsets[size] = startOffset;
+            endOffsets[size] = endOffset;
+            typeIndices[size] = type.match(typeIndex);
+            fragments[size] = fragment;
+            ++size;
+            return this;
+        }
+
+        public Builder<F> add(Token<F> token) {
+            final Region region = token.getRegion();
+            return add(token.getType(), region.getStartOffset(), region.getEndOffset(), token.getFragment());
+        }
+
+        /**
+         * Builds the token stream. Arrays are trimmed to size, such that no memory is wasted in long-lived or
+         * serialized token streams.
+         */
+        public TokenStream<F> build() {
+            return new TokenStream<>(size, Arrays.copyOf(startOffsets, size), Arrays.copyOf(endOffsets, size),
+                Arrays.copyOf(typeIndices, size), Arrays.copyOf(fragments, size));
+        }
+    }
+}
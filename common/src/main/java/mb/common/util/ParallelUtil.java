@@ -0,0 +1,123 @@
+package mb.common.util;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ParallelUtil {
+    @FunctionalInterface
+    public interface Mapper<T, R> {
+        R apply(T input) throws Exception;
+    }
+
+
+    /**
+     * Applies {@code mapper} to all {@code inputs} concurrently, on at most {@code parallelism} threads, and returns
+     * the results in the order of the inputs, regardless of the order in which they complete. Threads are taken from an
+     * executor that is shared between all calls, instead of creating threads for each call. The shared executor is
+     * unbounded, as {@code mapper} may block, for example on I/O or on another call.
+     *
+     * @throws Exception            The first exception thrown by {@code mapper}. Remaining applications are cancelled:
+     *                              inputs that were not mapped yet are skipped, and applications in progress are
+     *                              interrupted.
+     * @throws InterruptedException When interrupted while waiting. Remaining applications are cancelled.
+     */
+    public static <T, R> ArrayList<R> mapInOrder(List<? extends T> inputs, int parallelism, Mapper<? super T, ? extends R> mapper) throws Exception {
+        if(parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism " + parallelism + " must be larger than zero");
+        }
+        final int size = inputs.size();
+        final ArrayList<R> results = new ArrayList<>(size);
+        if(size == 0) {
+            return results;
+        }
+
+        final Object[] resultsArray = new Object[size];
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicReference<@Nullable Throwable> failure = new AtomicReference<>();
+        // Each worker maps inputs until all inputs are taken, or until any application fails.
+        final Runnable worker = () -> {
+            int index;
+            while(failure.get() == null && (index = nextIndex.getAndIncrement()) < size) {
+                try {
+                    resultsArray[index] = mapper.apply(inputs.get(index));
+                } catch(Throwable e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+            }
+        };
+
+        final int workerCount = Math.min(parallelism, size);
+        final CompletionService<@Nullable Void> completionService = new ExecutorCompletionService<>(SharedExecutor.executor);
+        final ArrayList<Future<@Nullable Void>> futures = new ArrayList<>(workerCount);
+        try {
+            for(int i = 0; i < workerCount; ++i) {
+                futures.add(completionService.submit(worker, null));
+            }
+            for(int i = 0; i < workerCount && failure.get() == null; ++i) {
+                completionService.take().get();
+            }
+        } catch(InterruptedException e) {
+            failure.compareAndSet(null, e);
+        } catch(ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        }
+
+        final @Nullable Throwable cause = failure.get();
+        if(cause != null) {
+            for(Future<@Nullable Void> future : futures) {
+                future.cancel(true);
+            }
+            if(cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+
+        for(Object result : resultsArray) {
+            @SuppressWarnings("unchecked") final R r = (R) result;
+            results.add(r);
+        }
+        return results;
+    }
+
+    /**
+     * Applies {@code mapper} to all {@code inputs} concurrently, using as many threads as there are available
+     * processors.
+     *
+     * @see #mapInOrder(List, int, Mapper)
+     */
+    public static <T, R> ArrayList<R> mapInOrder(List<? extends T> inputs, Mapper<? super T, ? extends R> mapper) throws Exception {
+        return mapInOrder(inputs, Runtime.getRuntime().availableProcessors(), mapper);
+    }
+
+
+    private static class SharedExecutor {
+        // Created on first use. Idle threads are terminated after a minute, and are daemons such that they never keep
+        // the JVM alive.
+        static final ExecutorService executor = Executors.newCachedThreadPool(new DaemonThreadFactory());
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "parallel-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package mb.common.style;
+
+import mb.common.region.Region;
+import mb.common.token.TokenImpl;
+import mb.common.token.TokenTypes;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StylingDeltaTest {
+    private static final Style keyword = new StyleImpl(null, null, true, false, false, false);
+    private static final Style identifier = new StyleImpl(new Color(0, 0, 128), null, false, false, false, false);
+    private static final Style number = new StyleImpl(new Color(0, 128, 0), null, false, false, false, false);
+    private static final Style operator = new StyleImpl(null, null, false, false, true, false);
+
+    private static final String text = "let var a := 1 in a + 21 end";
+
+
+    @Test void insertAtStart() {
+        assertTextChange(text, "var b := 2 " + text);
+    }
+
+    @Test void insertInMiddle() {
+        assertTextChange(text, text.replace("a + 21", "a + 321"));
+    }
+
+    @Test void insertAtEnd() {
+        assertTextChange(text, text + " 42");
+    }
+
+    @Test void deleteAtStart() {
+        assertTextChange(text, text.substring(4));
+    }
+
+    @Test void deleteInMiddle() {
+        assertTextChange(text, text.replace(" + 21", ""));
+    }
+
+    @Test void deleteAtEnd() {
+        assertTextChange(text, text.substring(0, text.length() - 4));
+    }
+
+    @Test void replaceAtStart() {
+        assertTextChange(text, "foo" + text.substring(3));
+    }
+
+    @Test void replaceInMiddle() {
+        final StylingDelta delta = assertTextChange(text, text.replace("a := 1", "a := x"));
+        // Only the replaced token, which changed from a number to an identifier, is restyled.
+        assertEquals(Region.fromOffsets(13, 14), delta.getRegion());
+        assertEquals(1, delta.getEndIndex() - delta.getStartIndex());
+    }
+
+    @Test void replaceAtEnd() {
+        assertTextChange(text, text.substring(0, text.length() - 3) + "in");
+    }
+
+    @Test void replaceWithinToken() {
+        final String changed = text.replace("21", "22");
+        final StylingDelta delta = assertTextChange(text, changed);
+        // The token keeps its style, but is restyled as it lies in the changed region.
+        assertEquals(Region.fromOffsets(22, 24), delta.getRegion());
+        assertEquals(1, delta.getEndIndex() - delta.getStartIndex());
+    }
+
+    @Test void styleChangeBeforeEdit() {
+        // Styling that changes the style of the first token, while the text changes later, like semantic styling does.
+        final String changed = text.replace("21", "22");
+        final Styling previous = style(text);
+        final Styling styling = restyle(style(changed), 0, identifier);
+        final Region changedRegion = Region.fromOffsets(22, 24);
+        final StylingDelta delta = StylingDelta.compute(previous, text.length(), styling, changed.length(), changedRegion);
+        assertDeltaApplies(previous, text.length(), styling, changed.length(), changedRegion, delta);
+        assertEquals(0, delta.getRegion().getStartOffset());
+        assertTrue(delta.getRegion().contains(changedRegion));
+        assertEquals(0, delta.getStartIndex());
+    }
+
+    @Test void styleChangeAfterEdit() {
+        // Styling that changes the style of the last token, while the text changes earlier.
+        final String changed = text.replace("var a", "var bb").replace("in a", "in bb");
+        final Styling previous = style(text);
+        final Styling fresh = style(changed);
+        final Styling styling = restyle(fresh, fresh.size() - 1, identifier);
+        final Region changedRegion = Region.fromOffsets(8, changed.length() - 9);
+        final StylingDelta delta = StylingDelta.compute(previous, text.length(), styling, changed.length(), changedRegion);
+        assertDeltaApplies(previous, text.length(), styling, changed.length(), changedRegion, delta);
+        assertEquals(changed.length(), delta.getRegion().getEndOffset());
+        assertTrue(delta.getRegion().contains(changedRegion));
+        assertEquals(styling.size(), delta.getEndIndex());
+    }
+
+    @Test void unchangedDocument() {
+        final StylingDelta delta = assertTextChange(text, text);
+        assertTrue(delta.isEmpty());
+        assertFalse(delta.isFull());
+        assertEquals(delta.getStartIndex(), delta.getEndIndex());
+    }
+
+    @Test void wholeDocumentChange() {
+        final String changed = "42 + b";
+        final StylingDelta delta = assertTextChange(text, changed);
+        assertEquals(Region.fromOffsets(0, changed.length()), delta.getRegion());
+        assertEquals(0, delta.getStartIndex());
+        assertEquals(style(changed).size(), delta.getEndIndex());
+    }
+
+    @Test void fullDelta() {
+        final Styling styling = style(text);
+        final StylingDelta delta = StylingDelta.full(styling, text.length());
+        assertTrue(delta.isFull());
+        assertFalse(delta.isEmpty());
+        assertEquals(Region.fromOffsets(0, text.length()), delta.getRegion());
+        assertEquals(0, delta.getStartIndex());
+        assertEquals(styling.size(), delta.getEndIndex());
+    }
+
+
+    /**
+     * Computes the delta between the stylings of {@code previousText} and {@code text}, and asserts that applying it to
+     * the styles of {@code previousText} results in the styles of {@code text}.
+     */
+    private static StylingDelta assertTextChange(String previousText, String text) {
+        final Styling previous = style(previousText);
+        final Styling styling = style(text);
+        final StylingDelta delta = StylingDelta.compute(previous, previousText, styling, text);
+        assertFalse(delta.isFull());
+        int prefix = 0;
+        final int minLength = Math.min(previousText.length(), text.length());
+        while(prefix < minLength && previousText.charAt(prefix) == text.charAt(prefix)) {
+            ++prefix;
+        }
+        int suffix = 0;
+        while(suffix < minLength - prefix && previousText.charAt(previousText.length() - 1 - suffix) == text.charAt(text.length() - 1 - suffix)) {
+            ++suffix;
+        }
+        final Region changedRegion = Region.fromOffsets(prefix, text.length() - suffix);
+        assertDeltaApplies(previous, previousText.length(), styling, text.length(), changedRegion, delta);
+        return delta;
+    }
+
+    /**
+     * Applies {@code delta} like an editor does: the previous styles are moved along with the text edit in {@code
+     * changedRegion}, styles in the damaged region are reset, and the styles of the delta are applied. Asserts that this
+     * results in {@code styling}, and that the damaged region covers the changed region and all styles of the delta.
+     */
+    private static void assertDeltaApplies(Styling previous, int previousTextLength, Styling styling, int textLength, Region changedRegion, StylingDelta delta) {
+        final Region region = delta.getRegion();
+        assertTrue(region.getEndOffset() <= textLength);
+        if(changedRegion.length() > 0 || previousTextLength != textLength) {
+            assertTrue(region.contains(changedRegion), region + " does not contain " + changedRegion);
+        }
+        for(int i = delta.getStartIndex(); i < delta.getEndIndex(); ++i) {
+            assertTrue(region.contains(Region.fromOffsets(styling.getStartOffset(i), styling.getEndOffset(i))));
+        }
+
+        final @Nullable Style[] previousStyles = stylePerCharacter(previous, previousTextLength);
+        final @Nullable Style[] styles = new Style[textLength];
+        final int lengthDelta = textLength - previousTextLength;
+        for(int i = 0; i < changedRegion.getStartOffset(); ++i) {
+            styles[i] = previousStyles[i];
+        }
+        for(int i = changedRegion.getEndOffset(); i < textLength; ++i) {
+            styles[i] = previousStyles[i - lengthDelta];
+        }
+        Arrays.fill(styles, region.getStartOffset(), region.getEndOffset(), null);
+        for(int i = delta.getStartIndex(); i < delta.getEndIndex(); ++i) {
+            Arrays.fill(styles, styling.getStartOffset(i), styling.getEndOffset(i), styling.getStyle(i));
+        }
+        assertArrayEquals(stylePerCharacter(styling, textLength), styles, delta.toString());
+    }
+
+    private static @Nullable Style[] stylePerCharacter(Styling styling, int textLength) {
+        final @Nullable Style[] styles = new Style[textLength];
+        for(int i = 0; i < styling.size(); ++i) {
+            Arrays.fill(styles, styling.getStartOffset(i), styling.getEndOffset(i), styling.getStyle(i));
+        }
+        return styles;
+    }
+
+
+    /**
+     * Styles {@code text} like a simple lexer: keywords, identifiers, numbers, and single character operators are styled,
+     * layout is not.
+     */
+    private static Styling style(String text) {
+        final ArrayList<TokenStyle> stylePerToken = new ArrayList<>();
+        int i = 0;
+        while(i < text.length()) {
+            final char c = text.charAt(i);
+            int end = i + 1;
+            if(Character.isWhitespace(c)) {
+                i = end;
+                continue;
+            }
+            final Style style;
+            if(Character.isLetter(c)) {
+                while(end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+                    ++end;
+                }
+                final String word = text.substring(i, end);
+                style = word.equals("let") || word.equals("var") || word.equals("in") || word.equals("end") ? keyword : identifier;
+            } else if(Character.isDigit(c)) {
+                while(end < text.length() && Character.isDigit(text.charAt(end))) {
+                    ++end;
+                }
+                style = number;
+            } else {
+                style = operator;
+            }
+            stylePerToken.add(new TokenStyleImpl(new TokenImpl<>(TokenTypes.unknown(), Region.fromOffsets(i, end), null), style));
+            i = end;
+        }
+        return new StylingImpl(stylePerToken);
+    }
+
+    private static Styling restyle(Styling styling, int index, Style style) {
+        final ArrayList<TokenStyle> stylePerToken = new ArrayList<>(styling.getStylePerToken());
+        stylePerToken.set(index, new TokenStyleImpl(stylePerToken.get(index).getToken(), style));
+        return new StylingImpl(stylePerToken);
+    }
+}
@@ -0,0 +1,52 @@
+package mb.common.token;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenStreamTest {
+    @Test void equalTokens() {
+        final TokenStream<String> tokens = tokens("a", "b", "b");
+        final TokenStream<String> sameTokens = tokens(new String("a"), new String("b"), new String("b"));
+        assertEquals(tokens, sameTokens);
+        assertEquals(tokens.hashCode(), sameTokens.hashCode());
+        // Comparing again uses the cached hash codes.
+        assertEquals(tokens, sameTokens);
+    }
+
+    @Test void differentFragments() {
+        final TokenStream<String> tokens = tokens("a", "b", "b");
+        assertNotEquals(tokens, tokens("a", "b", "c"));
+        assertNotEquals(tokens, tokens("a", "c", "c"));
+        assertNotEquals(tokens, tokens("a", "b", null));
+        assertNotEquals(tokens("a", null, null), tokens);
+        // Hash codes do not depend on fragments.
+        assertEquals(tokens.hashCode(), tokens("a", "b", "c").hashCode());
+    }
+
+    @Test void differentOffsetsOrTypes() {
+        final TokenStream<String> tokens = tokens("a", "b", "b");
+        final TokenStream<String> otherOffsets = new TokenStream.Builder<String>()
+            .add(TokenTypes.identifier(), 0, 1, "a")
+            .add(TokenTypes.layout(), 1, 2, "b")
+            .add(TokenTypes.keyword(), 2, 4, "b")
+            .build();
+        assertNotEquals(tokens, otherOffsets);
+        final TokenStream<String> otherTypes = new TokenStream.Builder<String>()
+            .add(TokenTypes.identifier(), 0, 1, "a")
+            .add(TokenTypes.layout(), 1, 2, "b")
+            .add(TokenTypes.operator(), 2, 3, "b")
+            .build();
+        assertNotEquals(tokens, otherTypes);
+    }
+
+
+    private static TokenStream<String> tokens(@Nullable String first, @Nullable String second, @Nullable String third) {
+        return new TokenStream.Builder<String>()
+            .add(TokenTypes.identifier(), 0, 1, first)
+            .add(TokenTypes.layout(), 1, 2, second)
+            .add(TokenTypes.keyword(), 2, 3, third)
+            .build();
+    }
+}
@@ -0,0 +1,110 @@
+package mb.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelUtilTest {
+    @Test void resultsInInputOrder() throws Exception {
+        final List<Integer> inputs = range(100);
+        // Earlier inputs take longer, such that they complete after later inputs.
+        final ArrayList<String> results = ParallelUtil.mapInOrder(inputs, 8, (i) -> {
+            Thread.sleep((100 - i) % 7);
+            return "r" + i;
+        });
+        assertEquals(100, results.size());
+        for(int i = 0; i < 100; ++i) {
+            assertEquals("r" + i, results.get(i));
+        }
+    }
+
+    @Test void emptyInputs() throws Exception {
+        assertTrue(ParallelUtil.mapInOrder(new ArrayList<Integer>(), 4, (i) -> i).isEmpty());
+    }
+
+    @Test void atMostParallelismConcurrentApplications() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        ParallelUtil.mapInOrder(range(50), 3, (i) -> {
+            final int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            Thread.sleep(2);
+            running.decrementAndGet();
+            return i;
+        });
+        assertTrue(maxRunning.get() <= 3, "At most 3 applications may run concurrently, but " + maxRunning.get() + " did");
+    }
+
+    @Test void propagatesException() {
+        final IOException exception = new IOException("input 5 failed");
+        final IOException thrown = assertThrows(IOException.class, () -> ParallelUtil.mapInOrder(range(10), 4, (i) -> {
+            if(i == 5) throw exception;
+            return i;
+        }));
+        assertSame(exception, thrown);
+    }
+
+    @Test void propagatesError() {
+        final AssertionError error = new AssertionError("input 3 failed");
+        final AssertionError thrown = assertThrows(AssertionError.class, () -> ParallelUtil.mapInOrder(range(10), 4, (i) -> {
+            if(i == 3) throw error;
+            return i;
+        }));
+        assertSame(error, thrown);
+    }
+
+    @Test void skipsRemainingInputsAfterException() {
+        final AtomicInteger applied = new AtomicInteger();
+        assertThrows(IllegalStateException.class, () -> ParallelUtil.mapInOrder(range(100), 1, (i) -> {
+            applied.incrementAndGet();
+            if(i == 2) throw new IllegalStateException();
+            return i;
+        }));
+        assertEquals(3, applied.get());
+    }
+
+    @Test void interruptsApplicationsInProgressAfterException() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        assertThrows(IllegalStateException.class, () -> ParallelUtil.mapInOrder(range(2), 2, (i) -> {
+            if(i == 0) {
+                // Blocks until interrupted.
+                blocked.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch(InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return i;
+            }
+            blocked.await();
+            throw new IllegalStateException();
+        }));
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test void runsOnSharedExecutor() throws Exception {
+        final String callingThread = Thread.currentThread().getName();
+        for(String thread : ParallelUtil.mapInOrder(range(8), 4, (i) -> Thread.currentThread().getName())) {
+            assertNotEquals(callingThread, thread);
+            assertTrue(thread.startsWith("parallel-"), thread);
+        }
+    }
+
+
+    private static List<Integer> range(int size) {
+        final ArrayList<Integer> list = new ArrayList<>(size);
+        for(int i = 0; i < size; ++i) {
+            list.add(i);
+        }
+        return list;
+    }
+}
@@ -9,7 +9,7 @@ import mb.nabl2.terms.stratego.TermIndex;
 import mb.nabl2.terms.stratego.TermOrigin;
 import mb.resource.ResourceKey;
 import mb.stratego.common.StrategoException;
-import mb.stratego.common.StrategoRuntime;
+import mb.stratego.common.StrategoRuntimePool;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spoofax.interpreter.core.Tools;
 import org.spoofax.interpreter.library.IOAgent;
@@ -24,9 +24,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 public class ConstraintAnalyzer {
     public static class Result implements Serializable {
@@ -45,6 +51,17 @@ public class ConstraintAnalyzer {
             this.ast = null;
             this.analysis = null;
         }
+
+        @Override public boolean equals(@Nullable Object o) {
+            if(this == o) return true;
+            if(o == null || getClass() != o.getClass()) return false;
+            final Result other = (Result)o;
+            return resource.equals(other.resource) && Objects.equals(ast, other.ast) && Objects.equals(analysis, other.analysis);
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(resource, ast, analysis);
+        }
     }
 
     public static class SingleFileResult implements Serializable {
@@ -57,33 +74,64 @@ public class ConstraintAnalyzer {
             this.analysis = analysis;
             this.messages = messages;
         }
+
+        @Override public boolean equals(@Nullable Object o) {
+            if(this == o) return true;
+            if(o == null || getClass() != o.getClass()) return false;
+            final SingleFileResult other = (SingleFileResult)o;
+            return Objects.equals(ast, other.ast) && Objects.equals(analysis, other.analysis) && messages.equals(other.messages);
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(ast, analysis, messages);
+        }
     }
 
     public static class MultiFileResult implements Serializable {
         public final ArrayList<Result> results;
         public final KeyedMessages keyedMessages;
+        // Index from resource to result, for constant-time lookup. Not serialized, because a HashMap does not serialize
+        // properly; the list of results is serialized instead, and the index is rebuilt on first lookup.
+        private transient volatile @Nullable HashMap<ResourceKey, Result> resultsByResource;
 
+        /**
+         * @param results Results for each resource, which must not be modified afterwards.
+         */
         public MultiFileResult(ArrayList<Result> results, KeyedMessages keyedMessages) {
             this.results = results;
             this.keyedMessages = keyedMessages;
         }
 
         public @Nullable Result getResult(ResourceKey resource) {
-            // OPTO: linear search to lookup. Cannot use HashMap because it does not serialize properly.
-            return results.stream().filter((r) -> r.resource.equals(resource)).findFirst().orElse(null);
+            @Nullable HashMap<ResourceKey, Result> index = resultsByResource;
+            if(index == null) {
+                // Racing threads may both build the index, which is harmless as they build equal indices.
+                index = new HashMap<>(results.size() * 4 / 3 + 1);
+                for(Result result : results) {
+                    index.putIfAbsent(result.resource, result);
+                }
+                resultsByResource = index;
+            }
+            return index.get(resource);
         }
     }
 
 
-    private final StrategoRuntime strategoRuntime;
+    // Minimum number of result terms per chunk to process result terms concurrently.
+    private static final int minResultsPerChunk = 64;
+
+    private final StrategoRuntimePool strategoRuntimePool;
     private final ITermFactory termFactory;
     private final String strategyId;
     private final boolean multifile;
 
 
-    @Inject public ConstraintAnalyzer(StrategoRuntime strategoRuntime, String strategyId, boolean multifile) {
-        this.strategoRuntime = strategoRuntime;
-        this.termFactory = strategoRuntime.getTermFactory();
+    /**
+     * @param strategoRuntimePool Pool to borrow Stratego runtimes from, such that analyses can run concurrently.
+     */
+    @Inject public ConstraintAnalyzer(StrategoRuntimePool strategoRuntimePool, String strategyId, boolean multifile) {
+        this.strategoRuntimePool = strategoRuntimePool;
+        this.termFactory = strategoRuntimePool.getTermFactory();
         this.strategyId = strategyId;
         this.multifile = multifile;
     }
@@ -113,6 +161,25 @@ public class ConstraintAnalyzer {
         HashMap<ResourceKey, IStrategoTerm> asts,
         ConstraintAnalyzerContext context,
         IOAgent strategoIOAgent
+    ) throws ConstraintAnalyzerException {
+        // Contexts may be shared by concurrent analyses of the same unit, which must not interleave.
+        synchronized(context) {
+            try {
+                return doAnalyzeWithContext(root, asts, context, strategoIOAgent);
+            } catch(ConstraintAnalyzerException | RuntimeException e) {
+                // Results are removed from the context while the analysis runs, so after a failure the context no
+                // longer matches any analysis state. Clear it, such that the next analysis starts from scratch.
+                context.clear();
+                throw e;
+            }
+        }
+    }
+
+    private MultiFileResult doAnalyzeWithContext(
+        @Nullable ResourceKey root,
+        HashMap<ResourceKey, IStrategoTerm> asts,
+        ConstraintAnalyzerContext context,
+        IOAgent strategoIOAgent
     ) throws ConstraintAnalyzerException {
         /// 1. Compute changeset from given asts and cache.
 
@@ -120,10 +187,14 @@ public class ConstraintAnalyzer {
         for(Entry<ResourceKey, IStrategoTerm> entry : asts.entrySet()) {
             final ResourceKey resource = entry.getKey();
             final IStrategoTerm ast = entry.getValue();
+            if(multifile && isUnchanged(resource, ast, context)) {
+                // Unchanged since the previous analysis with this context: pass its cached result instead.
+                continue;
+            }
             addedOrChangedAsts.put(resource, ast);
         }
         final HashSet<ResourceKey> removed = new HashSet<>(context.getResultResources());
-        removed.removeAll(addedOrChangedAsts.keySet());
+        removed.removeAll(asts.keySet());
 
         /// 2. Transform changeset into list of changed terms and expect objects, and remove invalidated units from the context.
 
@@ -160,6 +231,7 @@ public class ConstraintAnalyzer {
                 context.removeResult(resource);
                 context.removeResource(resource);
             }
+            context.removeInputAst(resource);
         }
 
         // Added and changed resources.
@@ -167,6 +239,7 @@ public class ConstraintAnalyzer {
             final ResourceKey resource = entry.getKey();
             context.registerResource(resource);
             final IStrategoTerm ast = entry.getValue();
+            context.updateInputAst(resource, ast);
             final IStrategoTerm change;
             final @Nullable Result cachedResult = context.getResult(resource);
             if(cachedResult != null) {
@@ -195,7 +268,8 @@ public class ConstraintAnalyzer {
 
         /// 3. Call analysis, and list results.
 
-        final Map<ResourceKey, IStrategoTerm> resultTerms = new HashMap<>();
+        // Linked map: result terms are processed in the order of the analysis output, for deterministic message order.
+        final LinkedHashMap<ResourceKey, IStrategoTerm> resultTerms = new LinkedHashMap<>();
         final IStrategoTerm action;
         if(multifile && root != null) {
             action = mkAppl("AnalyzeMulti", rootChange, termFactory.makeList(changeTerms));
@@ -205,7 +279,7 @@ public class ConstraintAnalyzer {
 
         final @Nullable IStrategoTerm allResultsTerm;
         try {
-            allResultsTerm = strategoRuntime.invoke(strategyId, action, strategoIOAgent);
+            allResultsTerm = strategoRuntimePool.invoke(strategyId, action, strategoIOAgent);
         } catch(StrategoException e) {
             throw new ConstraintAnalyzerException(e);
         }
@@ -242,18 +316,21 @@ public class ConstraintAnalyzer {
 
         /// 4. Process analysis results and collect messages.
 
-        final KeyedMessagesBuilder messagesBuilder = new KeyedMessagesBuilder();
-
-        // Process result terms, updating the result cache.
-        for(Map.Entry<ResourceKey, IStrategoTerm> entry : resultTerms.entrySet()) {
-            final ResourceKey resource = entry.getKey();
-            final IStrategoTerm resultTerm = entry.getValue();
-            if(expects.containsKey(resource)) {
-                expects.get(resource).processResultTerm(resultTerm, context, messagesBuilder);
-            } else {
+        final ArrayList<Map.Entry<ResourceKey, IStrategoTerm>> resultEntries = new ArrayList<>(resultTerms.entrySet());
+        for(Map.Entry<ResourceKey, IStrategoTerm> entry : resultEntries) {
+            if(!expects.containsKey(entry.getKey())) {
                 throw new RuntimeException(
-                    "BUG: got result '" + resultTerm + "' for resource '" + resource + "' that was not part of the input");
+                    "BUG: got result '" + entry.getValue() + "' for resource '" + entry.getKey() + "' that was not part of the input");
+            }
+        }
+
+        // Process result terms, and then update the result cache and merge messages in order of the results.
+        final KeyedMessagesBuilder messagesBuilder = new KeyedMessagesBuilder();
+        for(ProcessedResults processed : processResultTerms(resultEntries, expects)) {
+            for(Consumer<ConstraintAnalyzerContext> contextUpdate : processed.contextUpdates) {
+                contextUpdate.accept(context);
             }
+            messagesBuilder.addMessages(processed.messages);
         }
 
         // Check if all input resources have been covered.
@@ -267,7 +344,7 @@ public class ConstraintAnalyzer {
         /// 5. Build and return result object.
 
         final ArrayList<Result> results = new ArrayList<>(asts.size());
-        for(ResourceKey resource : addedOrChangedAsts.keySet()) {
+        for(ResourceKey resource : asts.keySet()) {
             final @Nullable Result result = context.getResult(resource);
             if(result != null) {
                 results.add(result);
@@ -279,6 +356,90 @@ public class ConstraintAnalyzer {
     }
 
 
+    /**
+     * Processes result terms, in chunks of consecutive results that are processed concurrently when there are enough
+     * results to make it worthwhile. Processing a result term only reads terms, so it is safe to do concurrently.
+     * Updates to the (non-thread-safe) context are returned instead of applied, and each chunk collects messages into
+     * its own builder. Chunks are returned in order, so merging them in order is deterministic.
+     *
+     * Chunks are processed on the {@link ForkJoinPool#commonPool() common pool}, except for the first chunk, which is
+     * processed on the calling thread.
+     */
+    private ArrayList<ProcessedResults> processResultTerms(
+        ArrayList<Map.Entry<ResourceKey, IStrategoTerm>> resultEntries,
+        HashMap<ResourceKey, Expect> expects
+    ) throws ConstraintAnalyzerException {
+        final int size = resultEntries.size();
+        final int chunkCount = Math.min(Runtime.getRuntime().availableProcessors(), size / minResultsPerChunk);
+        final ArrayList<ProcessedResults> processed = new ArrayList<>(Math.max(chunkCount, 1));
+        if(chunkCount <= 1) {
+            processed.add(processResultTermsChunk(resultEntries, expects));
+            return processed;
+        }
+        final ArrayList<ForkJoinTask<ProcessedResults>> tasks = new ArrayList<>(chunkCount - 1);
+        try {
+            for(int i = 1; i < chunkCount; ++i) {
+                final List<Map.Entry<ResourceKey, IStrategoTerm>> chunk = resultEntries.subList(i * size / chunkCount, (i + 1) * size / chunkCount);
+                tasks.add(ForkJoinPool.commonPool().submit(() -> processResultTermsChunk(chunk, expects)));
+            }
+            processed.add(processResultTermsChunk(resultEntries.subList(0, size / chunkCount), expects));
+            for(ForkJoinTask<ProcessedResults> task : tasks) {
+                processed.add(task.get());
+            }
+            return processed;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConstraintAnalyzerException("Processing constraint analysis results was interrupted", e);
+        } catch(ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if(cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new ConstraintAnalyzerException("Processing constraint analysis results failed unexpectedly", cause);
+        } finally {
+            // Cancel chunks that are no longer needed when processing failed. Does nothing for completed chunks.
+            for(ForkJoinTask<ProcessedResults> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    private ProcessedResults processResultTermsChunk(
+        List<Map.Entry<ResourceKey, IStrategoTerm>> resultEntries,
+        HashMap<ResourceKey, Expect> expects
+    ) {
+        final KeyedMessagesBuilder messagesBuilder = new KeyedMessagesBuilder();
+        final ArrayList<Consumer<ConstraintAnalyzerContext>> contextUpdates = new ArrayList<>(resultEntries.size());
+        for(Map.Entry<ResourceKey, IStrategoTerm> entry : resultEntries) {
+            contextUpdates.add(expects.get(entry.getKey()).processResultTerm(entry.getValue(), messagesBuilder));
+        }
+        return new ProcessedResults(contextUpdates, messagesBuilder.build());
+    }
+
+    private static class ProcessedResults {
+        final ArrayList<Consumer<ConstraintAnalyzerContext>> contextUpdates;
+        final KeyedMessages messages;
+
+        ProcessedResults(ArrayList<Consumer<ConstraintAnalyzerContext>> contextUpdates, KeyedMessages messages) {
+            this.contextUpdates = contextUpdates;
+            this.messages = messages;
+        }
+    }
+
+
+    private static boolean isUnchanged(ResourceKey resource, IStrategoTerm ast, ConstraintAnalyzerContext context) {
+        if(context.getResult(resource) == null) {
+            return false;
+        }
+        final @Nullable IStrategoTerm previousAst = context.getInputAst(resource);
+        // Only an identical AST is unchanged. Equal ASTs can still differ in their origins, for example after a layout
+        // change, and the cached result would then report messages at outdated positions.
+        return previousAst == ast;
+    }
+
+
     abstract class Expect {
         final ResourceKey resource;
 
@@ -297,7 +458,11 @@ public class ConstraintAnalyzer {
             messagesBuilder.addMessage(text, Severity.Error, resource);
         }
 
-        abstract void processResultTerm(IStrategoTerm resultTerm, ConstraintAnalyzerContext context, KeyedMessagesBuilder messagesBuilder);
+        /**
+         * Processes {@code resultTerm}, adding its messages to {@code messagesBuilder}. Does not update the context, but
+         * returns the update to apply to it instead, such that results can be processed concurrently.
+         */
+        abstract Consumer<ConstraintAnalyzerContext> processResultTerm(IStrategoTerm resultTerm, KeyedMessagesBuilder messagesBuilder);
     }
 
     class Full extends Expect {
@@ -306,18 +471,19 @@ public class ConstraintAnalyzer {
         }
 
         @Override
-        public void processResultTerm(IStrategoTerm resultTerm, ConstraintAnalyzerContext context, KeyedMessagesBuilder messagesBuilder) {
+        public Consumer<ConstraintAnalyzerContext> processResultTerm(IStrategoTerm resultTerm, KeyedMessagesBuilder messagesBuilder) {
             final @Nullable List<IStrategoTerm> results;
             if((results = match(resultTerm, "Full", 5)) != null) {
                 final IStrategoTerm ast = results.get(0);
                 final IStrategoTerm analysis = results.get(1);
                 addResultMessages(results.get(2), results.get(3), results.get(4), messagesBuilder);
-                context.updateResult(resource, ast, analysis);
+                return (context) -> context.updateResult(resource, ast, analysis);
             } else if(match(resultTerm, "Failed", 0) != null) {
                 addFailMessage("Analysis failed", messagesBuilder);
-                context.removeResult(resource);
+                return (context) -> context.removeResult(resource);
             } else {
                 addFailMessage("Analysis returned incorrect result", messagesBuilder);
+                return (context) -> {};
             }
         }
     }
@@ -328,17 +494,18 @@ public class ConstraintAnalyzer {
         }
 
         @Override
-        public void processResultTerm(IStrategoTerm resultTerm, ConstraintAnalyzerContext context, KeyedMessagesBuilder messagesBuilder) {
+        public Consumer<ConstraintAnalyzerContext> processResultTerm(IStrategoTerm resultTerm, KeyedMessagesBuilder messagesBuilder) {
             final @Nullable List<IStrategoTerm> results;
             if((results = match(resultTerm, "Update", 4)) != null) {
                 final IStrategoTerm analysis = results.get(0);
                 addResultMessages(results.get(1), results.get(2), results.get(3), messagesBuilder);
-                context.updateResult(resource, analysis);
+                return (context) -> context.updateResult(resource, analysis);
             } else if(match(resultTerm, "Failed", 0) != null) {
                 addFailMessage("Analysis failed", messagesBuilder);
-                context.removeResult(resource);
+                return (context) -> context.removeResult(resource);
             } else {
                 addFailMessage("Analysis returned incorrect result", messagesBuilder);
+                return (context) -> {};
             }
         }
     }
@@ -349,17 +516,18 @@ public class ConstraintAnalyzer {
         }
 
         @Override
-        public void processResultTerm(IStrategoTerm resultTerm, ConstraintAnalyzerContext context, KeyedMessagesBuilder messagesBuilder) {
+        public Consumer<ConstraintAnalyzerContext> processResultTerm(IStrategoTerm resultTerm, KeyedMessagesBuilder messagesBuilder) {
             final @Nullable List<IStrategoTerm> results;
             if((results = match(resultTerm, "Full", 5)) != null) {
                 final IStrategoTerm analysis = results.get(1);
                 addResultMessages(results.get(2), results.get(3), results.get(4), messagesBuilder);
-                context.updateResult(resource, analysis);
+                return (context) -> context.updateResult(resource, analysis);
             } else if(match(resultTerm, "Failed", 0) != null) {
                 addFailMessage("Analysis failed", messagesBuilder);
-                context.removeResult(resource);
+                return (context) -> context.removeResult(resource);
             } else {
                 addFailMessage("Analysis returned incorrect result", messagesBuilder);
+                return (context) -> {};
             }
         }
     }
@@ -9,9 +9,15 @@ import java.util.HashMap;
 import java.util.Map.Entry;
 import java.util.Set;
 
+/**
+ * Results of previous analyses, which are passed to the next analysis as cached or changed results, such that only
+ * changed resources need to be reanalyzed. Keep contexts alive across analyses with a {@link
+ * ConstraintAnalyzerContextManager}.
+ */
 public class ConstraintAnalyzerContext {
     private final HashMap<ResourceKey, Result> results = new HashMap<>();
     private final HashMap<String, ResourceKey> resources = new HashMap<>();
+    private final HashMap<ResourceKey, IStrategoTerm> inputAsts = new HashMap<>();
 
 
     @Nullable Result getResult(ResourceKey resource) {
@@ -44,6 +50,29 @@ public class ConstraintAnalyzerContext {
     }
 
 
+    @Nullable IStrategoTerm getInputAst(ResourceKey resource) {
+        return inputAsts.get(resource);
+    }
+
+    void updateInputAst(ResourceKey resource, IStrategoTerm ast) {
+        inputAsts.put(resource, ast);
+    }
+
+    void removeInputAst(ResourceKey resource) {
+        inputAsts.remove(resource);
+    }
+
+
+    /**
+     * Removes all results and resources, such that the next analysis with this context starts from scratch.
+     */
+    void clear() {
+        results.clear();
+        resources.clear();
+        inputAsts.clear();
+    }
+
+
     @Nullable ResourceKey getResource(String str) {
         return resources.get(str);
     }
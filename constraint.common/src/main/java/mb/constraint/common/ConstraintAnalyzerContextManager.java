@@ -0,0 +1,42 @@
+package mb.constraint.common;
+
+import mb.resource.ResourceKey;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@link ConstraintAnalyzerContext constraint analyzer contexts} alive across analyses, such that an analysis
+ * can reuse the results of the previous analysis of the same unit, and only reanalyze changed resources.
+ *
+ * Contexts are keyed by the project root of a multi-file analysis. Single-file analysis never reuses previous results,
+ * so it should use a fresh context for each analysis instead of keeping contexts of every file alive. Remove the context
+ * of a project root when that project is removed.
+ *
+ * This manager is thread-safe. Analyses that use the same context are serialized by {@link ConstraintAnalyzer}.
+ */
+public class ConstraintAnalyzerContextManager {
+    private final ConcurrentHashMap<ResourceKey, ConstraintAnalyzerContext> contexts = new ConcurrentHashMap<>();
+
+
+    /**
+     * Gets the context for analyzing {@code unit}, creating an empty context if none exists yet.
+     */
+    public ConstraintAnalyzerContext get(ResourceKey unit) {
+        return contexts.computeIfAbsent(unit, u -> new ConstraintAnalyzerContext());
+    }
+
+    /**
+     * Removes the context for analyzing {@code unit}, for example when it was deleted or renamed, such that a next
+     * analysis of {@code unit} starts from scratch.
+     */
+    public void remove(ResourceKey unit) {
+        contexts.remove(unit);
+    }
+
+    /**
+     * Removes all contexts.
+     */
+    public void clear() {
+        contexts.clear();
+    }
+}
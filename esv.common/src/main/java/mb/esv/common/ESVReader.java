@@ -5,7 +5,9 @@ import org.spoofax.interpreter.terms.IStrategoAppl;
 import org.spoofax.interpreter.terms.IStrategoList;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 import static org.spoofax.interpreter.terms.IStrategoTerm.APPL;
@@ -19,32 +21,62 @@ import static org.spoofax.terms.Term.tryGetName;
  */
 public class ESVReader {
     public static @Nullable IStrategoAppl findTerm(IStrategoTerm term, String constructor) {
-        if(term.getTermType() == IStrategoTerm.APPL && constructor.equals(constructorName(term))) {
-            return (IStrategoAppl) term;
-        }
-        for(IStrategoTerm subterm : term) {
-            final @Nullable IStrategoAppl result = findTerm(subterm, constructor);
-            if(result != null) {
-                return result;
+        // Iterative pre-order traversal, to not overflow the stack on deep terms.
+        final ArrayDeque<IStrategoTerm> stack = new ArrayDeque<>();
+        stack.push(term);
+        while(!stack.isEmpty()) {
+            final IStrategoTerm current = stack.pop();
+            if(current.getTermType() == IStrategoTerm.APPL && constructor.equals(constructorName(current))) {
+                return (IStrategoAppl) current;
             }
+            pushSubtermsInReverse(current, stack);
         }
         return null;
     }
 
+    /**
+     * Collects all applications of given {@code constructors} in {@code term}, ordered by constructor in the order they
+     * are given, and then in pre-order.
+     */
     public static ArrayList<IStrategoAppl> collectTerms(IStrategoTerm term, String... constructors) {
+        final HashMap<String, ArrayList<IStrategoAppl>> termsPerConstructor = collectTermsPerConstructor(term, constructors);
         final ArrayList<IStrategoAppl> results = new ArrayList<>();
         for(String constructor : constructors) {
-            collectTerms(term, constructor, results);
+            results.addAll(termsPerConstructor.get(constructor));
         }
         return results;
     }
 
-    private static void collectTerms(IStrategoTerm term, String constructor, ArrayList<IStrategoAppl> results) {
-        if(term.getTermType() == IStrategoTerm.APPL && constructor.equals(constructorName(term))) {
-            results.add((IStrategoAppl) term);
+    /**
+     * Collects all applications of given {@code constructors} in {@code term} in a single pre-order traversal.
+     *
+     * @return Map from each of the given constructor names to the applications of that constructor, in pre-order.
+     * Contains an (empty) list for every given constructor name.
+     */
+    public static HashMap<String, ArrayList<IStrategoAppl>> collectTermsPerConstructor(IStrategoTerm term, String... constructors) {
+        final HashMap<String, ArrayList<IStrategoAppl>> results = new HashMap<>();
+        for(String constructor : constructors) {
+            results.put(constructor, new ArrayList<>());
+        }
+        // Iterative pre-order traversal, to not overflow the stack on deep terms.
+        final ArrayDeque<IStrategoTerm> stack = new ArrayDeque<>();
+        stack.push(term);
+        while(!stack.isEmpty()) {
+            final IStrategoTerm current = stack.pop();
+            if(current.getTermType() == IStrategoTerm.APPL) {
+                final @Nullable ArrayList<IStrategoAppl> bucket = results.get(((IStrategoAppl) current).getConstructor().getName());
+                if(bucket != null) {
+                    bucket.add((IStrategoAppl) current);
+                }
+            }
+            pushSubtermsInReverse(current, stack);
         }
-        for(IStrategoTerm subterm : term) {
-            collectTerms(subterm, constructor, results);
+        return results;
+    }
+
+    private static void pushSubtermsInReverse(IStrategoTerm term, ArrayDeque<IStrategoTerm> stack) {
+        for(int i = term.getSubtermCount() - 1; i >= 0; --i) {
+            stack.push(term.getSubterm(i));
         }
     }
 
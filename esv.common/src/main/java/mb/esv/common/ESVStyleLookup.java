@@ -0,0 +1,82 @@
+package mb.esv.common;
+
+import mb.common.style.Style;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spoofax.interpreter.terms.IStrategoAppl;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.imploder.ImploderAttachment;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the style of terms from {@link ESVStylingRules}, memoizing resolved styles per sort and per constructor,
+ * such that styling a term does not allocate and costs one lookup once its sort and constructor have been seen.
+ *
+ * Sorts are keyed by the sort strings of imploder attachments, which are shared by all terms created by the same
+ * production. Constructors are keyed by name, as styling rules only refer to constructors by name. Constructors are not
+ * keyed by identity, as equal constructors are only shared when all terms are created by the same term factory.
+ *
+ * This lookup is thread-safe.
+ */
+class ESVStyleLookup {
+    private final ESVStylingRules rules;
+    private final ConcurrentHashMap<String, SortStyles> sortStyles = new ConcurrentHashMap<>();
+
+
+    ESVStyleLookup(ESVStylingRules rules) {
+        this.rules = rules;
+    }
+
+
+    /**
+     * Gets the style of {@code term}: for applications the style of its sort and constructor, its constructor, or its
+     * sort, in that order, and for other terms the style of its sort.
+     */
+    @Nullable Style style(IStrategoTerm term) {
+        final @Nullable ImploderAttachment imploderAttachment = ImploderAttachment.get(term);
+        if(imploderAttachment == null) {
+            return null;
+        }
+        final @Nullable String sort = imploderAttachment.getSort();
+        if(sort == null) {
+            return null;
+        }
+        final SortStyles styles = sortStyles.computeIfAbsent(sort, SortStyles::new);
+        if(term.getTermType() == IStrategoTerm.APPL) {
+            return styles.applStyle(((IStrategoAppl) term).getConstructor().getName());
+        }
+        return styles.sortStyle;
+    }
+
+
+    private class SortStyles {
+        private final String sort;
+        private final @Nullable Style sortStyle;
+        private final HashMap<String, @Nullable Style> constructorStyles = new HashMap<>();
+
+
+        private SortStyles(String sort) {
+            // LEGACY: for some reason, when using concrete syntax extensions, all sorts are appended with _sort.
+            this.sort = sort.replace("_sort", "");
+            this.sortStyle = rules.sortStyle(this.sort);
+        }
+
+
+        synchronized @Nullable Style applStyle(String cons) {
+            final @Nullable Style memoized = constructorStyles.get(cons);
+            if(memoized != null || constructorStyles.containsKey(cons)) {
+                return memoized;
+            }
+            @Nullable Style style = rules.sortConsStyle(sort, cons);
+            if(style == null) {
+                style = rules.consStyle(cons);
+            }
+            if(style == null) {
+                style = sortStyle;
+            }
+            constructorStyles.put(cons, style);
+            return style;
+        }
+    }
+}
@@ -3,59 +3,94 @@ package mb.esv.common;
 import mb.common.region.Region;
 import mb.common.style.*;
 import mb.common.token.Token;
+import mb.common.token.TokenStream;
+import mb.common.token.TokenType;
 import mb.log.api.Logger;
 import mb.log.api.LoggerFactory;
 import org.checkerframework.checker.nullness.qual.Nullable;
-import org.spoofax.interpreter.terms.IStrategoAppl;
 import org.spoofax.interpreter.terms.IStrategoTerm;
-import org.spoofax.jsglr.client.imploder.ImploderAttachment;
 import org.spoofax.terms.attachments.ParentAttachment;
 
 import java.util.ArrayList;
 
 public class ESVStyler {
     private final ESVStylingRules rules;
+    private final ESVStyleLookup lookup;
+    private final boolean compact;
     private final Logger logger;
 
 
     public ESVStyler(ESVStylingRules rules, LoggerFactory loggerFactory) {
         this.rules = rules;
+        this.lookup = new ESVStyleLookup(rules);
+        this.compact = rules.getStyleCount() <= CompactStyling.maxStyleCount;
         this.logger = loggerFactory.create(getClass());
     }
 
 
     public Styling style(Iterable<? extends Token<IStrategoTerm>> tokens) {
-        final ArrayList<TokenStyle> tokenStyles = new ArrayList<>();
-        for(Token<IStrategoTerm> token : tokens) {
-            final @Nullable Style style = tokenStyle(token);
-            if(style != null) {
-                tokenStyles.add(new TokenStyleImpl(token, style));
-            }
+        if(tokens instanceof TokenStream) {
+            @SuppressWarnings("unchecked") final TokenStream<IStrategoTerm> tokenStream = (TokenStream<IStrategoTerm>) tokens;
+            return style(tokenStream);
+        }
+        return style(TokenStream.of(tokens));
+    }
+
+    public Styling style(TokenStream<IStrategoTerm> tokens) {
+        return style(tokens, 0, tokens.size());
+    }
+
+    /**
+     * Styles only the tokens that overlap {@code region}, for example the visible region of an editor.
+     */
+    public Styling style(TokenStream<IStrategoTerm> tokens, Region region) {
+        final int startIndex = tokens.indexOfFirstTokenEndingAfter(region.getStartOffset());
+        int endIndex = startIndex;
+        final int size = tokens.size();
+        while(endIndex < size && tokens.getStartOffset(endIndex) < region.getEndOffset()) {
+            ++endIndex;
         }
+        return style(tokens, startIndex, endIndex);
+    }
+
+    private Styling style(TokenStream<IStrategoTerm> tokens, int startIndex, int endIndex) {
+        // Compact stylings store one byte per styled token, which only fits rules with few enough distinct styles.
+        final @Nullable CompactStyling.Builder builder = compact ? new CompactStyling.Builder(tokens, endIndex - startIndex) : null;
+        final @Nullable ArrayList<TokenStyle> stylePerToken = compact ? null : new ArrayList<>();
         int offset = -1;
-        final ArrayList<TokenStyle> validated = new ArrayList<>();
-        for(TokenStyle tokenStyle : tokenStyles) {
-            final Region region = tokenStyle.getToken().getRegion();
-            if(offset >= region.getStartOffset()) {
+        for(int i = startIndex; i < endIndex; ++i) {
+            final @Nullable Style style = tokenStyle(tokens.getType(i), tokens.getFragment(i));
+            if(style == null) {
+                continue;
+            }
+            final int startOffset = tokens.getStartOffset(i);
+            final int endOffsetInclusive = tokens.getEndOffset(i) - 1;
+            if(offset >= startOffset) {
                 logger.warn("Invalid {}, starting offset is greater than offset in previous regions, "
-                    + "token style will be skipped", tokenStyle);
-            } else if(offset >= region.getEndOffsetInclusive()) {
+                    + "token style will be skipped", tokens.get(i));
+            } else if(offset >= endOffsetInclusive) {
                 logger.warn("Invalid {}, ending offset is greater than offset in previous regions, "
-                    + "token style will be skipped", tokenStyle);
-            } else if(region.getStartOffset() > region.getEndOffsetInclusive()) {
+                    + "token style will be skipped", tokens.get(i));
+            } else if(startOffset > endOffsetInclusive) {
                 logger.warn("Invalid {}, starting offset is greater than ending offset, "
-                    + "token style will be skipped", tokenStyle);
+                    + "token style will be skipped", tokens.get(i));
             } else {
-                validated.add(tokenStyle);
-                offset = region.getEndOffsetInclusive();
+                if(builder != null) {
+                    builder.add(i, style);
+                } else if(stylePerToken != null) {
+                    stylePerToken.add(new TokenStyleImpl(tokens.get(i), style));
+                }
+                offset = endOffsetInclusive;
             }
         }
-        return new StylingImpl(validated);
+        if(builder != null) {
+            return builder.build();
+        }
+        return new StylingImpl(stylePerToken != null ? stylePerToken : new ArrayList<>());
     }
 
 
-    private @Nullable Style tokenStyle(Token<IStrategoTerm> token) {
-        final @Nullable IStrategoTerm term = token.getFragment();
+    private @Nullable Style tokenStyle(TokenType type, @Nullable IStrategoTerm term) {
         if(term != null) {
             final @Nullable Style style = termStyle(term);
             if(style != null) {
@@ -63,7 +98,7 @@ public class ESVStyler {
             }
         }
 
-        return rules.tokenTypeStyle(token.getType());
+        return rules.tokenTypeStyle(type);
     }
 
     private @Nullable Style termStyle(IStrategoTerm term) {
@@ -72,44 +107,13 @@ public class ESVStyler {
             // Try to use the parent of terminal nodes, mimicking behavior of old Spoofax/IMP runtime.
             final IStrategoTerm parentTerm = ParentAttachment.getParent(term);
             if(parentTerm != null) {
-                final @Nullable Style style = sortConsStyle(parentTerm);
+                final @Nullable Style style = lookup.style(parentTerm);
                 if(style != null) {
                     return style;
                 }
             }
         }
 
-        return sortConsStyle(term);
-    }
-
-    private @Nullable Style sortConsStyle(IStrategoTerm term) {
-        final @Nullable ImploderAttachment imploderAttachment = ImploderAttachment.get(term);
-        if(imploderAttachment == null) {
-            return null;
-        }
-        final @Nullable String sort = imploderAttachment.getSort();
-        if(sort == null) {
-            return null;
-        }
-
-        // LEGACY: for some reason, when using concrete syntax extensions, all sorts are appended with _sort.
-        final String massagedSort = sort.replace("_sort", "");
-
-        if(term.getTermType() == IStrategoTerm.APPL) {
-            final String cons = ((IStrategoAppl) term).getConstructor().getName();
-            if(rules.hasSortConsStyle(massagedSort, cons)) {
-                return rules.sortConsStyle(massagedSort, cons);
-            } else if(rules.hasConsStyle(cons)) {
-                return rules.consStyle(cons);
-            } else if(rules.hasSortStyle(massagedSort)) {
-                return rules.sortStyle(massagedSort);
-            }
-        }
-
-        if(rules.hasSortStyle(massagedSort)) {
-            return rules.sortStyle(massagedSort);
-        }
-
-        return null;
+        return lookup.style(term);
     }
 }
@@ -2,15 +2,23 @@ package mb.esv.common;
 
 import mb.common.style.Style;
 import mb.common.token.TokenType;
+import mb.common.util.IOUtil;
+import mb.common.util.SerializationException;
+import mb.common.util.SerializationUtil;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 import org.spoofax.terms.TermFactory;
 import org.spoofax.terms.io.binary.TermReader;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 public class ESVStylingRules implements Serializable {
     private final HashMap<SortCons, Style> sortConsToStyle = new HashMap<>();
@@ -29,6 +37,33 @@ public class ESVStylingRules implements Serializable {
         return StylingRulesFromESV.create(esvTerm);
     }
 
+    /**
+     * Loads styling rules that were serialized with {@link #toSerializedStream(OutputStream)}. No ESV term is read or
+     * traversed, which makes this much faster than {@link #fromStream(InputStream)}.
+     */
+    public static ESVStylingRules fromSerializedStream(InputStream serializedStream) throws IOException {
+        try {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            IOUtil.copy(serializedStream, outputStream);
+            return SerializationUtil.deserialize(outputStream.toByteArray(), ESVStylingRules.class.getClassLoader());
+        } catch(SerializationException | ClassCastException e) {
+            throw new IOException("Loading serialized styling rules from stream failed unexpectedly", e);
+        }
+    }
+
+
+    /**
+     * Serializes these styling rules to given {@code outputStream}, to be loaded with {@link
+     * #fromSerializedStream(InputStream)}. Closes the stream.
+     */
+    public void toSerializedStream(OutputStream outputStream) throws IOException {
+        try {
+            SerializationUtil.serialize(this, outputStream);
+        } catch(SerializationException e) {
+            throw new IOException("Serializing styling rules to stream failed unexpectedly", e);
+        }
+    }
+
 
     public boolean hasSortConsStyle(String sort, String cons) {
         return sortConsToStyle.containsKey(new SortCons(sort, cons));
@@ -47,6 +82,20 @@ public class ESVStylingRules implements Serializable {
     }
 
 
+    /**
+     * @return Number of distinct style objects used by these rules. Styles created from ESV are interned, so this is
+     * the number of distinct styles.
+     */
+    public int getStyleCount() {
+        final Set<Style> styles = Collections.newSetFromMap(new IdentityHashMap<>());
+        styles.addAll(sortConsToStyle.values());
+        styles.addAll(consToStyle.values());
+        styles.addAll(sortToStyle.values());
+        styles.addAll(tokenTypeToStyle.values());
+        return styles.size();
+    }
+
+
     public @Nullable Style sortConsStyle(String sort, String cons) {
         return sortConsToStyle.get(new SortCons(sort, cons));
     }
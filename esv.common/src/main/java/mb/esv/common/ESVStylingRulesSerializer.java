@@ -0,0 +1,36 @@
+package mb.esv.common;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Reads packed ESV styling rules and writes them in serialized form, to be loaded with {@link
+ * ESVStylingRules#fromSerializedStream(InputStream)}. Run at build time by generated language projects.
+ *
+ * Usage: {@code ESVStylingRulesSerializer <packed ESV file> <serialized styling rules file>}.
+ */
+public class ESVStylingRulesSerializer {
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            throw new IllegalArgumentException("Expected 2 arguments: <packed ESV file> <serialized styling rules file>, but got " + args.length + " arguments");
+        }
+        final Path packedESVFile = Paths.get(args[0]);
+        final Path serializedRulesFile = Paths.get(args[1]);
+        final ESVStylingRules stylingRules;
+        try(final InputStream inputStream = new BufferedInputStream(Files.newInputStream(packedESVFile))) {
+            stylingRules = ESVStylingRules.fromStream(inputStream);
+        }
+        final Path parent = serializedRulesFile.toAbsolutePath().getParent();
+        if(parent != null) {
+            Files.createDirectories(parent);
+        }
+        final OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(serializedRulesFile));
+        stylingRules.toSerializedStream(outputStream); // Closes the stream.
+    }
+}
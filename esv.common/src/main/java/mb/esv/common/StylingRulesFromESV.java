@@ -2,7 +2,7 @@ package mb.esv.common;
 
 import mb.common.style.Color;
 import mb.common.style.Style;
-import mb.common.style.StyleImpl;
+import mb.common.style.StyleInterner;
 import mb.common.token.TokenType;
 import mb.common.token.TokenTypes;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -11,21 +11,26 @@ import org.spoofax.interpreter.terms.IStrategoConstructor;
 import org.spoofax.interpreter.terms.IStrategoString;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
 class StylingRulesFromESV {
     static ESVStylingRules create(IStrategoTerm esvTerm) {
         final ESVStylingRules styler = new ESVStylingRules();
+        // Intern styles, such that rules with equal styles share a single style object.
+        final StyleInterner interner = new StyleInterner();
 
-        final Iterable<IStrategoAppl> styleDefs = ESVReader.collectTerms(esvTerm, "ColorDef");
+        final HashMap<String, ArrayList<IStrategoAppl>> terms = ESVReader.collectTermsPerConstructor(esvTerm, "ColorDef", "ColorRule");
+
+        final Iterable<IStrategoAppl> styleDefs = terms.get("ColorDef");
         final Map<String, Style> namedStyles = new HashMap<>();
         for(IStrategoAppl styleDef : styleDefs) {
             final IStrategoAppl styleTerm = (IStrategoAppl) styleDef.getSubterm(1);
             final IStrategoConstructor styleCons = styleTerm.getConstructor();
             final Style style;
             if(styleCons.getName().equals("Attribute")) {
-                style = style(styleTerm);
+                style = style(interner, styleTerm);
             } else if(styleCons.getName().equals("AttributeRef")) {
                 final String name = asJavaString(styleTerm.getSubterm(0));
                 style = namedStyles.get(name);
@@ -43,13 +48,13 @@ class StylingRulesFromESV {
             namedStyles.put(asJavaString(styleDef.getSubterm(0)), style);
         }
 
-        final Iterable<IStrategoAppl> styleRules = ESVReader.collectTerms(esvTerm, "ColorRule");
+        final Iterable<IStrategoAppl> styleRules = terms.get("ColorRule");
         for(IStrategoAppl styleRule : styleRules) {
             final IStrategoAppl styleTerm = (IStrategoAppl) styleRule.getSubterm(1);
             final IStrategoConstructor styleCons = styleTerm.getConstructor();
             final Style style;
             if(styleCons.getName().equals("Attribute")) {
-                style = style(styleTerm);
+                style = style(interner, styleTerm);
             } else if(styleCons.getName().equals("AttributeRef")) {
                 final String name = asJavaString(styleTerm.getSubterm(0));
                 style = namedStyles.get(name);
@@ -92,7 +97,7 @@ class StylingRulesFromESV {
         return styler;
     }
 
-    private static Style style(IStrategoAppl attribute) {
+    private static Style style(StyleInterner interner, IStrategoAppl attribute) {
         final @Nullable Color color = color((IStrategoAppl) attribute.getSubterm(0));
         final @Nullable Color backgroundColor = color((IStrategoAppl) attribute.getSubterm(1));
         final boolean bold;
@@ -119,7 +124,7 @@ class StylingRulesFromESV {
                 italic = false;
                 break;
         }
-        return new StyleImpl(color, backgroundColor, bold, italic, underline, strikeout);
+        return interner.style(color, backgroundColor, bold, italic, underline, strikeout);
     }
 
     private static @Nullable Color color(IStrategoAppl color) {
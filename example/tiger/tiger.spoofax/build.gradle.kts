@@ -1,5 +1,6 @@
 plugins {
   id("org.metaborg.gradle.config.java-library")
+  id("org.metaborg.gradle.config.junit-testing")
   id("net.ltgt.apt")
   id("net.ltgt.apt-idea")
 }
@@ -16,4 +17,7 @@ dependencies {
   compileOnly("org.checkerframework:checker-qual-android")
 
   annotationProcessor("com.google.dagger:dagger-compiler")
+
+  testImplementation("org.metaborg:log.backend.noop")
+  testCompileOnly("org.checkerframework:checker-qual-android")
 }
@@ -1,8 +1,9 @@
 package mb.tiger.spoofax;
 
 import mb.common.message.KeyedMessages;
+import mb.common.region.Region;
 import mb.common.style.Styling;
-import mb.common.token.Token;
+import mb.common.token.TokenStream;
 import mb.common.util.CollectionView;
 import mb.common.util.ListView;
 import mb.common.util.MapView;
@@ -30,7 +31,6 @@ import mb.tiger.spoofax.taskdef.command.TigerShowPrettyPrintedText;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import javax.inject.Inject;
-import java.util.ArrayList;
 
 import static mb.spoofax.core.language.menu.CommandAction.ofManualContinuous;
 import static mb.spoofax.core.language.menu.CommandAction.ofManualOnce;
@@ -89,12 +89,16 @@ public class TigerInstance implements LanguageInstance {
     }
 
 
-    @Override public Task<@Nullable ArrayList<? extends Token<?>>> createTokenizeTask(ResourceKey resourceKey) {
+    @Override public Task<@Nullable TokenStream<?>> createTokenizeTask(ResourceKey resourceKey) {
         return getParsedTokens.createTask(resourceKey);
     }
 
     @Override public Task<@Nullable Styling> createStyleTask(ResourceKey resourceKey) {
-        return style.createTask(parse.createTokensProvider(resourceKey));
+        return style.createTask(new TigerStyle.Input(parse.createTokensProvider(resourceKey)));
+    }
+
+    @Override public Task<@Nullable Styling> createStyleTask(ResourceKey resourceKey, Region region) {
+        return style.createTask(new TigerStyle.Input(parse.createTokensProvider(resourceKey), region));
     }
 
     @Override public Task<KeyedMessages> createCheckTask(ResourceKey resourceKey) {
@@ -13,6 +13,7 @@ import mb.spoofax.core.language.LanguageInstance;
 import mb.spoofax.core.language.LanguageScope;
 import mb.stratego.common.StrategoRuntime;
 import mb.stratego.common.StrategoRuntimeBuilder;
+import mb.stratego.common.StrategoRuntimePool;
 import mb.tiger.TigerConstraintAnalyzer;
 import mb.tiger.TigerConstraintAnalyzerFactory;
 import mb.tiger.TigerParser;
@@ -42,11 +43,11 @@ import java.util.Set;
 @Module
 public class TigerModule {
     @Provides @LanguageScope
-    TigerParserFactory provideParserFactory() {
-        return new TigerParserFactory();
+    TigerParserFactory provideParserFactory(LoggerFactory loggerFactory) {
+        return new TigerParserFactory(loggerFactory);
     }
 
-    @Provides /* Unscoped: parser has state, so create a new parser every call. */
+    @Provides @LanguageScope /* Scoped: parser borrows a stateful parser from the factory's pool for each parse. */
     TigerParser provideParser(TigerParserFactory parserFactory) {
         return parserFactory.create();
     }
@@ -78,10 +79,15 @@ public class TigerModule {
         return builder.build();
     }
 
+    @Provides @LanguageScope /* Scoped: runtimes are borrowed from the pool for each invocation. */
+    StrategoRuntimePool provideStrategoRuntimePool(StrategoRuntimeBuilder builder, StrategoRuntime prototypeStrategoRuntime) {
+        return new StrategoRuntimePool(builder, prototypeStrategoRuntime);
+    }
+
 
     @Provides @LanguageScope
-    TigerConstraintAnalyzerFactory provideConstraintAnalyzerFactory(StrategoRuntime prototypeStrategoRuntime) {
-        return new TigerConstraintAnalyzerFactory(prototypeStrategoRuntime);
+    TigerConstraintAnalyzerFactory provideConstraintAnalyzerFactory(StrategoRuntimePool strategoRuntimePool) {
+        return new TigerConstraintAnalyzerFactory(strategoRuntimePool);
     }
 
     @Provides @LanguageScope
@@ -69,6 +69,7 @@ public class TigerAnalyze implements TaskDef<TigerAnalyze.Input, @Nullable Singl
             return null;
         }
 
+        // Single-file analysis never reuses previous results, so a fresh context is used instead of keeping one alive.
         try {
             return constraintAnalyzer.analyze(input.resourceKey, ast, new ConstraintAnalyzerContext(), new StrategoIOAgent(loggerFactory, resourceService));
         } catch(ConstraintAnalyzerException e) {
@@ -6,7 +6,6 @@ import mb.constraint.common.ConstraintAnalyzer.SingleFileResult;
 import mb.jsglr1.common.JSGLR1ParseResult;
 import mb.pie.api.ExecContext;
 import mb.pie.api.ExecException;
-import mb.pie.api.ResourceStringProvider;
 import mb.pie.api.TaskDef;
 import mb.resource.ResourceKey;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -29,10 +28,9 @@ public class TigerGetMessages implements TaskDef<ResourceKey, KeyedMessages> {
     @Override
     public KeyedMessages exec(ExecContext context, ResourceKey key) throws ExecException, InterruptedException {
         final KeyedMessagesBuilder builder = new KeyedMessagesBuilder();
-        final ResourceStringProvider stringProvider = new ResourceStringProvider(key);
-        final JSGLR1ParseResult parseResult = context.require(parse, stringProvider);
+        final JSGLR1ParseResult parseResult = context.require(parse, new TigerParse.Input(key));
         builder.addMessages(key, parseResult.getMessages());
-        final @Nullable SingleFileResult analysisResult = context.require(analyze, new TigerAnalyze.Input(key, parse.createAstProvider(stringProvider)));
+        final @Nullable SingleFileResult analysisResult = context.require(analyze, new TigerAnalyze.Input(key, parse.createAstProvider(key)));
         //noinspection ConstantConditions
         if(analysisResult != null) {
             builder.addMessages(key, analysisResult.messages);
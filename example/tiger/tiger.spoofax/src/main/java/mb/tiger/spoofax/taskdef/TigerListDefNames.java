@@ -6,8 +6,7 @@ import mb.pie.api.Provider;
 import mb.pie.api.TaskDef;
 import mb.resource.ResourceService;
 import mb.stratego.common.StrategoIOAgent;
-import mb.stratego.common.StrategoRuntime;
-import mb.stratego.common.StrategoRuntimeBuilder;
+import mb.stratego.common.StrategoRuntimePool;
 import mb.stratego.common.StrategoUtil;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spoofax.interpreter.terms.IStrategoTerm;
@@ -15,20 +14,17 @@ import org.spoofax.interpreter.terms.IStrategoTerm;
 import javax.inject.Inject;
 
 public class TigerListDefNames implements TaskDef<Provider<@Nullable IStrategoTerm>, @Nullable String> {
-    private final StrategoRuntimeBuilder strategoRuntimeBuilder;
-    private final StrategoRuntime prototypeStrategoRuntime;
+    private final StrategoRuntimePool strategoRuntimePool;
     private final LoggerFactory loggerFactory;
     private final ResourceService resourceService;
 
     @Inject
     public TigerListDefNames(
-        StrategoRuntimeBuilder strategoRuntimeBuilder,
-        StrategoRuntime prototypeStrategoRuntime,
+        StrategoRuntimePool strategoRuntimePool,
         LoggerFactory loggerFactory,
         ResourceService resourceService
     ) {
-        this.strategoRuntimeBuilder = strategoRuntimeBuilder;
-        this.prototypeStrategoRuntime = prototypeStrategoRuntime;
+        this.strategoRuntimePool = strategoRuntimePool;
         this.loggerFactory = loggerFactory;
         this.resourceService = resourceService;
     }
@@ -45,9 +41,16 @@ public class TigerListDefNames implements TaskDef<Provider<@Nullable IStrategoTe
             return null;
         }
 
-        final StrategoRuntime strategoRuntime = strategoRuntimeBuilder.buildFromPrototype(prototypeStrategoRuntime);
+        return listDefNames(ast);
+    }
+
+    /**
+     * Lists the definition names of given {@code ast} outside of a task execution. Thread-safe, as a Stratego runtime
+     * is borrowed from the pool for each call.
+     */
+    public @Nullable String listDefNames(IStrategoTerm ast) throws Exception {
         final String strategyId = "list-of-def-names";
-        final @Nullable IStrategoTerm result = strategoRuntime.invoke(strategyId, ast, new StrategoIOAgent(loggerFactory, resourceService));
+        final @Nullable IStrategoTerm result = strategoRuntimePool.invoke(strategyId, ast, new StrategoIOAgent(loggerFactory, resourceService));
         if(result == null) {
             return null;
         }
@@ -2,8 +2,9 @@ package mb.tiger.spoofax.taskdef;
 
 import mb.common.message.Message;
 import mb.common.message.Messages;
-import mb.common.token.Token;
+import mb.common.token.TokenStream;
 import mb.jsglr1.common.JSGLR1ParseResult;
+import mb.jsglr1.common.JSGLR1ParserOptions;
 import mb.pie.api.ExecContext;
 import mb.pie.api.ExecException;
 import mb.pie.api.Provider;
@@ -20,15 +21,66 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
+import java.util.Objects;
 import java.util.function.Function;
 
-public class TigerParse implements TaskDef<Provider<String>, JSGLR1ParseResult> {
-    private final javax.inject.Provider<TigerParser> parserProvider;
+public class TigerParse implements TaskDef<TigerParse.Input, JSGLR1ParseResult> {
+    public static class Input implements Serializable {
+        public final Provider<String> stringProvider;
+        /**
+         * Resource the text comes from, or {@code null} if it does not come from a resource. When given, the resource
+         * is attached to the AST.
+         */
+        public final @Nullable ResourceKey resourceKey;
+        /**
+         * Options to parse with instead of the default options of the parser, or {@code null} to use the default
+         * options. For example, batch parses can disable recovery or use a longer timeout than editor parses.
+         */
+        public final @Nullable JSGLR1ParserOptions options;
+
+        public Input(Provider<String> stringProvider, @Nullable ResourceKey resourceKey, @Nullable JSGLR1ParserOptions options) {
+            this.stringProvider = stringProvider;
+            this.resourceKey = resourceKey;
+            this.options = options;
+        }
+
+        public Input(Provider<String> stringProvider, @Nullable ResourceKey resourceKey) {
+            this(stringProvider, resourceKey, null);
+        }
+
+        public Input(ResourceKey resourceKey, JSGLR1ParserOptions options) {
+            this(new ResourceStringProvider(resourceKey), resourceKey, options);
+        }
+
+        public Input(Provider<String> stringProvider) {
+            this(stringProvider, null);
+        }
+
+        public Input(ResourceKey resourceKey) {
+            this(new ResourceStringProvider(resourceKey), resourceKey);
+        }
+
+        @Override public boolean equals(Object o) {
+            if(this == o) return true;
+            if(o == null || getClass() != o.getClass()) return false;
+            final Input input = (Input)o;
+            return stringProvider.equals(input.stringProvider) && Objects.equals(resourceKey, input.resourceKey) && Objects.equals(options, input.options);
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(stringProvider, resourceKey, options);
+        }
+
+        @Override public String toString() {
+            return "Input(stringProvider=" + stringProvider + ", resourceKey=" + resourceKey + ", options=" + options + ')';
+        }
+    }
+
+    private final TigerParser parser;
 
     @Inject
-    public TigerParse(javax.inject.Provider<TigerParser> parserProvider) {
-        this.parserProvider = parserProvider;
+    public TigerParse(TigerParser parser) {
+        this.parser = parser;
     }
 
     @Override public String getId() {
@@ -36,49 +88,51 @@ public class TigerParse implements TaskDef<Provider<String>, JSGLR1ParseResult>
     }
 
     @Override
-    public JSGLR1ParseResult exec(ExecContext context, Provider<String> stringProvider) throws InterruptedException {
+    public JSGLR1ParseResult exec(ExecContext context, Input input) throws InterruptedException {
         final String text;
         try {
-            text = context.require(stringProvider);
+            text = context.require(input.stringProvider);
         } catch(ExecException | IOException e) {
-            return JSGLR1ParseResult.failed(Messages.of(new Message("Cannot get text input for parser from '" + stringProvider + "'", e)));
+            return JSGLR1ParseResult.failed(Messages.of(new Message("Cannot get text input for parser from '" + input.stringProvider + "'", e)));
+        }
+        if(input.options != null) {
+            return parser.parse(text, "Module", input.resourceKey, input.options);
         }
-        final TigerParser parser = parserProvider.get();
-        return parser.parse(text, "Module");
+        return parser.parse(text, "Module", input.resourceKey);
     }
 
 
     public Provider<@Nullable IStrategoTerm> createAstProvider(Provider<String> stringProvider) {
-        return this.createSerializableTask(stringProvider).map(new AstMapper());
+        return this.createSerializableTask(new Input(stringProvider)).map(new AstMapper());
     }
 
     public Provider<@Nullable IStrategoTerm> createAstProvider(ResourceKey key) {
-        return this.createSerializableTask(new ResourceStringProvider(key)).map(new AstMapper());
+        return this.createSerializableTask(new Input(key)).map(new AstMapper());
     }
 
     public Provider<@Nullable IStrategoTerm> createAstProvider(ResourceKey key, ResourceStamper<ReadableResource> stamper) {
-        return this.createSerializableTask(new ResourceStringProvider(key, stamper)).map(new AstMapper());
+        return this.createSerializableTask(new Input(new ResourceStringProvider(key, stamper), key)).map(new AstMapper());
     }
 
     public Provider<@Nullable IStrategoTerm> createAstProvider(ResourceKey key, ResourceStamper<ReadableResource> stamper, Charset charset) {
-        return this.createSerializableTask(new ResourceStringProvider(key, stamper, charset)).map(new AstMapper());
+        return this.createSerializableTask(new Input(new ResourceStringProvider(key, stamper, charset), key)).map(new AstMapper());
     }
 
 
-    public Provider<@Nullable ArrayList<? extends Token<IStrategoTerm>>> createTokensProvider(Provider<String> stringProvider) {
-        return this.createSerializableTask(stringProvider).map(new TokensMapper());
+    public Provider<@Nullable TokenStream<IStrategoTerm>> createTokensProvider(Provider<String> stringProvider) {
+        return this.createSerializableTask(new Input(stringProvider)).map(new TokensMapper());
     }
 
-    public Provider<@Nullable ArrayList<? extends Token<IStrategoTerm>>> createTokensProvider(ResourceKey key) {
-        return this.createSerializableTask(new ResourceStringProvider(key)).map(new TokensMapper());
+    public Provider<@Nullable TokenStream<IStrategoTerm>> createTokensProvider(ResourceKey key) {
+        return this.createSerializableTask(new Input(key)).map(new TokensMapper());
     }
 
-    public Provider<@Nullable ArrayList<? extends Token<IStrategoTerm>>> createTokensProvider(ResourceKey key, ResourceStamper<ReadableResource> stamper) {
-        return this.createSerializableTask(new ResourceStringProvider(key, stamper)).map(new TokensMapper());
+    public Provider<@Nullable TokenStream<IStrategoTerm>> createTokensProvider(ResourceKey key, ResourceStamper<ReadableResource> stamper) {
+        return this.createSerializableTask(new Input(new ResourceStringProvider(key, stamper), key)).map(new TokensMapper());
     }
 
-    public Provider<@Nullable ArrayList<? extends Token<IStrategoTerm>>> createTokensProvider(ResourceKey key, ResourceStamper<ReadableResource> stamper, Charset charset) {
-        return this.createSerializableTask(new ResourceStringProvider(key, stamper, charset)).map(new TokensMapper());
+    public Provider<@Nullable TokenStream<IStrategoTerm>> createTokensProvider(ResourceKey key, ResourceStamper<ReadableResource> stamper, Charset charset) {
+        return this.createSerializableTask(new Input(new ResourceStringProvider(key, stamper, charset), key)).map(new TokensMapper());
     }
 }
 
@@ -88,8 +142,8 @@ class AstMapper implements Function<JSGLR1ParseResult, @Nullable IStrategoTerm>,
     }
 }
 
-class TokensMapper implements Function<JSGLR1ParseResult, @Nullable ArrayList<? extends Token<IStrategoTerm>>>, Serializable {
-    @Override public @Nullable ArrayList<? extends Token<IStrategoTerm>> apply(JSGLR1ParseResult result) {
+class TokensMapper implements Function<JSGLR1ParseResult, @Nullable TokenStream<IStrategoTerm>>, Serializable {
+    @Override public @Nullable TokenStream<IStrategoTerm> apply(JSGLR1ParseResult result) {
         return result.getTokens().orElse(null);
     }
 }
@@ -1,7 +1,8 @@
 package mb.tiger.spoofax.taskdef;
 
+import mb.common.region.Region;
 import mb.common.style.Styling;
-import mb.common.token.Token;
+import mb.common.token.TokenStream;
 import mb.pie.api.ExecContext;
 import mb.pie.api.ExecException;
 import mb.pie.api.Provider;
@@ -12,9 +13,42 @@ import org.spoofax.interpreter.terms.IStrategoTerm;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.Serializable;
+import java.util.Objects;
+
+public class TigerStyle implements TaskDef<TigerStyle.Input, @Nullable Styling> {
+    public static class Input implements Serializable {
+        public final Provider<@Nullable TokenStream<IStrategoTerm>> tokensProvider;
+        public final @Nullable Region region;
+
+        /**
+         * @param region Region to style the tokens of, or null to style all tokens.
+         */
+        public Input(Provider<@Nullable TokenStream<IStrategoTerm>> tokensProvider, @Nullable Region region) {
+            this.tokensProvider = tokensProvider;
+            this.region = region;
+        }
+
+        public Input(Provider<@Nullable TokenStream<IStrategoTerm>> tokensProvider) {
+            this(tokensProvider, null);
+        }
+
+        @Override public boolean equals(Object o) {
+            if(this == o) return true;
+            if(o == null || getClass() != o.getClass()) return false;
+            final Input input = (Input)o;
+            return tokensProvider.equals(input.tokensProvider) && Objects.equals(region, input.region);
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(tokensProvider, region);
+        }
+
+        @Override public String toString() {
+            return "Input(tokensProvider=" + tokensProvider + ", region=" + region + ')';
+        }
+    }
 
-public class TigerStyle implements TaskDef<Provider<@Nullable ArrayList<? extends Token<IStrategoTerm>>>, @Nullable Styling> {
     private final TigerStyler styler;
 
     @Inject public TigerStyle(TigerStyler styler) {
@@ -26,11 +60,13 @@ public class TigerStyle implements TaskDef<Provider<@Nullable ArrayList<? extend
     }
 
     @Override
-    public @Nullable Styling exec(ExecContext context, Provider<@Nullable ArrayList<? extends Token<IStrategoTerm>>> tokensProvider) throws ExecException, IOException, InterruptedException {
-        final @Nullable ArrayList<? extends Token<IStrategoTerm>> tokens = context.require(tokensProvider);
+    public @Nullable Styling exec(ExecContext context, Input input) throws ExecException, IOException, InterruptedException {
+        final @Nullable TokenStream<IStrategoTerm> tokens = context.require(input.tokensProvider);
         //noinspection ConstantConditions
         if(tokens == null) {
             return null;
+        } else if(input.region != null) {
+            return styler.style(tokens, input.region);
         } else {
             return styler.style(tokens);
         }
@@ -2,12 +2,16 @@ package mb.tiger.spoofax.taskdef.command;
 
 import mb.common.util.EnumSetView;
 import mb.common.util.ListView;
+import mb.common.util.ParallelUtil;
+import mb.jsglr1.common.JSGLR1ParseResult;
 import mb.pie.api.ExecContext;
 import mb.pie.api.ExecException;
 import mb.pie.api.Provider;
+import mb.pie.api.ResourceStringProvider;
 import mb.pie.api.Task;
 import mb.pie.api.TaskDef;
 import mb.pie.api.stamp.resource.ResourceStampers;
+import mb.resource.ResourceKey;
 import mb.resource.ResourceService;
 import mb.resource.hierarchical.HierarchicalResource;
 import mb.resource.hierarchical.ResourcePath;
@@ -27,6 +31,7 @@ import mb.spoofax.core.language.command.arg.ArgProviders;
 import mb.spoofax.core.language.command.arg.Param;
 import mb.spoofax.core.language.command.arg.ParamDef;
 import mb.spoofax.core.language.command.arg.RawArgs;
+import mb.tiger.TigerParser;
 import mb.tiger.spoofax.taskdef.TigerListDefNames;
 import mb.tiger.spoofax.taskdef.TigerParse;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -35,26 +40,34 @@ import org.spoofax.interpreter.terms.IStrategoTerm;
 import javax.inject.Inject;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TigerCompileDirectory implements TaskDef<TigerCompileDirectory.Args, CommandOutput>, CommandDef<TigerCompileDirectory.Args> {
     public static class Args implements Serializable {
         final ResourcePath dir;
+        final boolean parallel;
 
-        public Args(ResourcePath dir) {
+        public Args(ResourcePath dir, boolean parallel) {
             this.dir = dir;
+            this.parallel = parallel;
+        }
+
+        public Args(ResourcePath dir) {
+            this(dir, false);
         }
 
         @Override public boolean equals(@Nullable Object obj) {
             if(this == obj) return true;
             if(obj == null || getClass() != obj.getClass()) return false;
             final Args other = (Args)obj;
-            return dir.equals(other.dir);
+            return parallel == other.parallel &&
+                dir.equals(other.dir);
         }
 
         @Override public int hashCode() {
-            return Objects.hash(dir);
+            return Objects.hash(dir, parallel);
         }
 
         @Override public String toString() {
@@ -64,13 +77,15 @@ public class TigerCompileDirectory implements TaskDef<TigerCompileDirectory.Args
 
 
     private final TigerParse parse;
+    private final TigerParser parser;
     private final TigerListDefNames listDefNames;
     private final ResourceService resourceService;
 
 
     @Inject
-    public TigerCompileDirectory(TigerParse parse, TigerListDefNames listDefNames, ResourceService resourceService) {
+    public TigerCompileDirectory(TigerParse parse, TigerParser parser, TigerListDefNames listDefNames, ResourceService resourceService) {
         this.parse = parse;
+        this.parser = parser;
         this.listDefNames = listDefNames;
         this.resourceService = resourceService;
     }
@@ -86,37 +101,24 @@ public class TigerCompileDirectory implements TaskDef<TigerCompileDirectory.Args
         final ResourceMatcher matcher = new AllResourceMatcher(new FileResourceMatcher(), new PathResourceMatcher(new ExtensionsPathMatcher("tig")));
         final HierarchicalResource directory = context.require(dir, ResourceStampers.modifiedDir(matcher));
 
-        final StringBuffer sb = new StringBuffer();
+        final ArrayList<HierarchicalResource> files = new ArrayList<>();
+        directory.list(matcher).forEach(files::add);
+        final List<@Nullable String> defNamesPerFile = input.parallel ? listDefNamesParallel(context, files) : listDefNamesSequential(context, files);
+
+        final StringBuilder sb = new StringBuilder();
         sb.append("[\n  ");
-        try {
-            final AtomicBoolean first = new AtomicBoolean(true);
-            directory.list(matcher).forEach((f) -> {
-                try {
-                    if(!first.get()) {
-                        sb.append(", ");
-                    }
-                    final Provider<@Nullable IStrategoTerm> astProvider = parse.createAstProvider(f.getKey());
-                    final @Nullable String defNames = context.require(listDefNames, astProvider);
-                    //noinspection ConstantConditions (defNames can really be null)
-                    if(defNames != null) {
-                        sb.append(defNames);
-                    } else {
-                        sb.append("[]");
-                    }
-                    sb.append('\n');
-                    first.set(false);
-                } catch(ExecException | InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-        } catch(RuntimeException e) {
-            if(e.getCause() instanceof ExecException) {
-                throw (ExecException)e.getCause();
-            } else if(e.getCause() instanceof InterruptedException) {
-                throw (InterruptedException)e.getCause();
+        boolean first = true;
+        for(@Nullable String defNames : defNamesPerFile) {
+            if(!first) {
+                sb.append(", ");
+            }
+            if(defNames != null) {
+                sb.append(defNames);
             } else {
-                throw e;
+                sb.append("[]");
             }
+            sb.append('\n');
+            first = false;
         }
         sb.append(']');
 
@@ -128,6 +130,49 @@ public class TigerCompileDirectory implements TaskDef<TigerCompileDirectory.Args
         return new CommandOutput(ListView.of(CommandFeedbacks.showFile(generatedPath, null)));
     }
 
+    private List<@Nullable String> listDefNamesSequential(ExecContext context, List<HierarchicalResource> files) throws ExecException, InterruptedException {
+        final ArrayList<@Nullable String> defNamesPerFile = new ArrayList<>(files.size());
+        for(HierarchicalResource file : files) {
+            final Provider<@Nullable IStrategoTerm> astProvider = parse.createAstProvider(file.getKey());
+            defNamesPerFile.add(context.require(listDefNames, astProvider));
+        }
+        return defNamesPerFile;
+    }
+
+    /**
+     * Parses and lists definition names of {@code files} concurrently. The execution context does not support
+     * concurrent requires, so texts are first required sequentially to record dependencies on the files. Parsing and
+     * transformation then happen outside of tasks, which means that they are not incremental per file.
+     */
+    private List<@Nullable String> listDefNamesParallel(ExecContext context, List<HierarchicalResource> files) throws Exception {
+        final ArrayList<String> texts = new ArrayList<>(files.size());
+        final ArrayList<ResourceKey> resources = new ArrayList<>(files.size());
+        for(HierarchicalResource file : files) {
+            texts.add(context.require(new ResourceStringProvider(file.getKey())));
+            resources.add(file.getKey());
+        }
+        return listDefNamesParallel(texts, resources);
+    }
+
+    /**
+     * Parses and lists definition names of {@code texts} from {@code resources} concurrently, outside of tasks. Returns
+     * the definition names in the order of {@code texts}, or {@code null} for texts that could not be parsed.
+     */
+    public List<@Nullable String> listDefNamesParallel(List<String> texts, List<? extends ResourceKey> resources) throws Exception {
+        final ArrayList<Integer> indices = new ArrayList<>(texts.size());
+        for(int i = 0; i < texts.size(); ++i) {
+            indices.add(i);
+        }
+        return ParallelUtil.mapInOrder(indices, (i) -> {
+            final JSGLR1ParseResult parseResult = parser.parse(texts.get(i), "Module", resources.get(i));
+            final @Nullable IStrategoTerm ast = parseResult.getAst().orElse(null);
+            if(ast == null) {
+                return null;
+            }
+            return listDefNames.listDefNames(ast);
+        });
+    }
+
     @Override public Task<CommandOutput> createTask(Args input) {
         return TaskDef.super.createTask(input);
     }
@@ -146,17 +191,22 @@ public class TigerCompileDirectory implements TaskDef<TigerCompileDirectory.Args
     }
 
     @Override public ParamDef getParamDef() {
-        return new ParamDef(Param.of("dir", ResourcePath.class, true, ListView.of(ArgProviders.context())));
+        return new ParamDef(
+            Param.of("dir", ResourcePath.class, true, ListView.of(ArgProviders.context())),
+            Param.of("parallel", boolean.class, false, ArgProviders.value(false))
+        );
     }
 
     @Override public Args fromRawArgs(RawArgs rawArgs) {
         final ResourcePath dir = rawArgs.getOrThrow("dir");
-        return new TigerCompileDirectory.Args(dir);
+        final boolean parallel = rawArgs.getOrFalse("parallel");
+        return new TigerCompileDirectory.Args(dir, parallel);
     }
 
     public CliCommand getCliCommandItem() {
         return CliCommand.of("compile-dir", "Compiles Tiger files in given directory and shows the compiled file", this,
-            CliParams.positional("dir", 0, "DIR", "Directory to compile", null)
+            CliParams.positional("dir", 0, "DIR", "Directory to compile", null),
+            CliParams.option("parallel", ListView.of("-p", "--parallel"), false, "", "Whether to parse and compile files concurrently", null)
         );
     }
 }
@@ -6,7 +6,6 @@ import mb.common.util.ListView;
 import mb.jsglr.common.TermTracer;
 import mb.jsglr1.common.JSGLR1ParseResult;
 import mb.pie.api.ExecContext;
-import mb.pie.api.ResourceStringProvider;
 import mb.pie.api.Task;
 import mb.pie.api.TaskDef;
 import mb.resource.ResourceKey;
@@ -19,8 +18,7 @@ import mb.spoofax.core.language.command.CommandOutput;
 import mb.spoofax.core.language.command.arg.ParamDef;
 import mb.spoofax.core.language.command.arg.RawArgs;
 import mb.spoofax.core.language.command.arg.TextToResourceKeyArgConverter;
-import mb.stratego.common.StrategoRuntime;
-import mb.stratego.common.StrategoRuntimeBuilder;
+import mb.stratego.common.StrategoRuntimePool;
 import mb.stratego.common.StrategoUtil;
 import mb.tiger.spoofax.taskdef.TigerParse;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -31,20 +29,17 @@ import javax.inject.Inject;
 
 public class TigerShowPrettyPrintedText implements TaskDef<TigerShowArgs, CommandOutput>, CommandDef<TigerShowArgs> {
     private final TigerParse parse;
-    private final StrategoRuntimeBuilder strategoRuntimeBuilder;
-    private final StrategoRuntime prototypeStrategoRuntime;
+    private final StrategoRuntimePool strategoRuntimePool;
     private final TextToResourceKeyArgConverter textToResourceKeyArgConverter;
 
 
     @Inject public TigerShowPrettyPrintedText(
         TigerParse parse,
-        StrategoRuntimeBuilder strategoRuntimeBuilder,
-        StrategoRuntime prototypeStrategoRuntime,
+        StrategoRuntimePool strategoRuntimePool,
         TextToResourceKeyArgConverter textToResourceKeyArgConverter
     ) {
         this.parse = parse;
-        this.strategoRuntimeBuilder = strategoRuntimeBuilder;
-        this.prototypeStrategoRuntime = prototypeStrategoRuntime;
+        this.strategoRuntimePool = strategoRuntimePool;
         this.textToResourceKeyArgConverter = textToResourceKeyArgConverter;
     }
 
@@ -57,7 +52,7 @@ public class TigerShowPrettyPrintedText implements TaskDef<TigerShowArgs, Comman
         final ResourceKey key = input.key;
         final @Nullable Region region = input.region;
 
-        final JSGLR1ParseResult parseResult = context.require(parse, new ResourceStringProvider(key));
+        final JSGLR1ParseResult parseResult = context.require(parse, new TigerParse.Input(key));
         final IStrategoTerm ast = parseResult.getAst()
             .orElseThrow(() -> new RuntimeException("Cannot show pretty-printed text, parsed AST for '" + key + "' is null"));
 
@@ -68,9 +63,8 @@ public class TigerShowPrettyPrintedText implements TaskDef<TigerShowArgs, Comman
             term = ast;
         }
 
-        final StrategoRuntime strategoRuntime = strategoRuntimeBuilder.buildFromPrototype(prototypeStrategoRuntime);
         final String strategyId = "pp-Tiger-string";
-        final @Nullable IStrategoTerm result = strategoRuntime.invoke(strategyId, term, new IOAgent());
+        final @Nullable IStrategoTerm result = strategoRuntimePool.invoke(strategyId, term, new IOAgent());
         if(result == null) {
             throw new RuntimeException("Cannot show pretty-printed text, executing Stratego strategy '" + strategyId + "' failed");
         }
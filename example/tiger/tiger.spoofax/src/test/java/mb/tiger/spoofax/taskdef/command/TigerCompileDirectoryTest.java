@@ -0,0 +1,72 @@
+package mb.tiger.spoofax.taskdef.command;
+
+import mb.jsglr1.common.JSGLR1ParseResult;
+import mb.log.api.LoggerFactory;
+import mb.log.noop.NoopLoggerFactory;
+import mb.resource.DefaultResourceService;
+import mb.resource.ResourceKey;
+import mb.resource.ResourceService;
+import mb.resource.SimpleResourceKey;
+import mb.resource.fs.FSResourceRegistry;
+import mb.stratego.common.StrategoRuntimePool;
+import mb.tiger.TigerParser;
+import mb.tiger.TigerParserFactory;
+import mb.tiger.TigerStrategoRuntimeBuilderFactory;
+import mb.tiger.spoofax.taskdef.TigerListDefNames;
+import mb.tiger.spoofax.taskdef.TigerParse;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TigerCompileDirectoryTest {
+    private final LoggerFactory loggerFactory = new NoopLoggerFactory();
+    private final ResourceService resourceService = new DefaultResourceService(new FSResourceRegistry());
+    private final TigerParser parser = new TigerParserFactory(loggerFactory).create();
+    private final StrategoRuntimePool strategoRuntimePool = new TigerStrategoRuntimeBuilderFactory().createPool();
+    private final TigerListDefNames listDefNames = new TigerListDefNames(strategoRuntimePool, loggerFactory, resourceService);
+    private final TigerCompileDirectory compileDirectory = new TigerCompileDirectory(new TigerParse(parser), parser, listDefNames, resourceService);
+
+    @Test void listDefNamesParallelInOrder() throws Exception {
+        final ArrayList<String> texts = new ArrayList<>();
+        final ArrayList<ResourceKey> resources = new ArrayList<>();
+        for(int i = 0; i < 32; ++i) {
+            final StringBuilder text = new StringBuilder("let ");
+            // Files have different sizes, such that they are not completed in order.
+            for(int j = 0; j <= (32 - i) % 5; ++j) {
+                text.append("var a").append(i).append('_').append(j).append(" := ").append(j).append(' ');
+            }
+            text.append("function f").append(i).append("() = 1 in a").append(i).append("_0 end");
+            texts.add(text.toString());
+            resources.add(new SimpleResourceKey("test", i + ".tig"));
+        }
+
+        final List<@Nullable String> defNames = compileDirectory.listDefNamesParallel(texts, resources);
+
+        assertEquals(texts.size(), defNames.size());
+        for(int i = 0; i < texts.size(); ++i) {
+            final @Nullable String expected = listDefNamesSequential(texts.get(i), resources.get(i));
+            assertNotNull(expected);
+            assertEquals(expected, defNames.get(i), "Definition names of file " + i);
+            assertTrue(expected.contains("f" + i), expected);
+        }
+    }
+
+    @Test void listDefNamesParallelOfNoFiles() throws Exception {
+        assertTrue(compileDirectory.listDefNamesParallel(new ArrayList<>(), new ArrayList<>()).isEmpty());
+    }
+
+
+    private @Nullable String listDefNamesSequential(String text, ResourceKey resource) throws Exception {
+        final JSGLR1ParseResult result = parser.parse(text, "Module", resource);
+        final @Nullable IStrategoTerm ast = result.getAst().orElse(null);
+        if(ast == null) {
+            return null;
+        }
+        return listDefNames.listDefNames(ast);
+    }
+}
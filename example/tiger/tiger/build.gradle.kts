@@ -6,5 +6,6 @@ plugins {
 
 dependencies {
   testImplementation("org.metaborg:log.backend.noop")
+  testImplementation("org.metaborg:jsglr2.common")
   testCompileOnly("org.checkerframework:checker-qual-android")
 }
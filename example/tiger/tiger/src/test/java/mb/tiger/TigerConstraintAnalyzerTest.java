@@ -1,32 +1,41 @@
 package mb.tiger;
 
+import mb.common.message.Messages;
 import mb.common.message.Severity;
 import mb.constraint.common.ConstraintAnalyzer;
 import mb.constraint.common.ConstraintAnalyzer.MultiFileResult;
 import mb.constraint.common.ConstraintAnalyzer.SingleFileResult;
 import mb.constraint.common.ConstraintAnalyzerContext;
+import mb.constraint.common.ConstraintAnalyzerContextManager;
 import mb.constraint.common.ConstraintAnalyzerException;
+import mb.jsglr.common.ResourceKeyAttachment;
 import mb.jsglr1.common.JSGLR1ParseResult;
+import mb.log.noop.NoopLoggerFactory;
 import mb.resource.ResourceKey;
 import mb.resource.SimpleResourceKey;
 import mb.stratego.common.StrategoRuntime;
 import mb.stratego.common.StrategoRuntimeBuilder;
+import mb.stratego.common.StrategoRuntimePool;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.jupiter.api.Test;
 import org.spoofax.interpreter.library.IOAgent;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class TigerConstraintAnalyzerTest {
     private static final String qualifier = "test";
 
-    private final TigerParser parser = new TigerParserFactory().create();
+    private final TigerParser parser = new TigerParserFactory(new NoopLoggerFactory()).create();
     private final StrategoRuntimeBuilder strategoRuntimeBuilder = new TigerStrategoRuntimeBuilderFactory().create();
     private final StrategoRuntime strategoRuntime = strategoRuntimeBuilder.build();
-    private final TigerConstraintAnalyzer analyzer = new TigerConstraintAnalyzerFactory(strategoRuntime).create();
+    private final StrategoRuntimePool strategoRuntimePool = new StrategoRuntimePool(strategoRuntimeBuilder, strategoRuntime);
+    private final TigerConstraintAnalyzer analyzer = new TigerConstraintAnalyzerFactory(strategoRuntimePool).create();
+    // Tiger's analyzer is generated for single-file analysis, but its analysis strategy also supports multi-file analysis.
+    private final ConstraintAnalyzer multiFileAnalyzer = new ConstraintAnalyzer(strategoRuntimePool, "editor-analyze", true);
 
     @Test void analyzeSingleErrors() throws InterruptedException, ConstraintAnalyzerException {
         final ResourceKey resource = new SimpleResourceKey(qualifier, "a.tig");
@@ -119,4 +128,158 @@ class TigerConstraintAnalyzerTest {
         assertNotNull(result3.analysis);
         assertTrue(result.keyedMessages.isEmpty());
     }
+
+    @Test void analyzeMultipleReuseContext() throws InterruptedException, ConstraintAnalyzerException {
+        final ConstraintAnalyzerContextManager contextManager = new ConstraintAnalyzerContextManager();
+        final ResourceKey root = new SimpleResourceKey(qualifier, "");
+        final ResourceKey resource1 = new SimpleResourceKey(qualifier, "a.tig");
+        final JSGLR1ParseResult parsed1 = parser.parse("1 + 1", "Module", resource1);
+        assertTrue(parsed1.getAst().isPresent());
+        final ResourceKey resource2 = new SimpleResourceKey(qualifier, "b.tig");
+        final JSGLR1ParseResult parsed2 = parser.parse("1 + nil", "Module", resource2);
+        assertTrue(parsed2.getAst().isPresent());
+        final HashMap<ResourceKey, IStrategoTerm> asts = new HashMap<>();
+        asts.put(resource1, parsed1.getAst().get());
+        asts.put(resource2, parsed2.getAst().get());
+        final MultiFileResult result = multiFileAnalyzer.analyze(root, asts, contextManager.get(root), new IOAgent());
+        assertTrue(result.keyedMessages.getMessages(resource2).containsError());
+        final ConstraintAnalyzer.@Nullable Result result1 = result.getResult(resource1);
+        assertNotNull(result1);
+        assertNotNull(result1.ast);
+        final ConstraintAnalyzer.@Nullable Result result2 = result.getResult(resource2);
+        assertNotNull(result2);
+        assertNotNull(result2.ast);
+
+        // Fix the error in 'b.tig', while the AST of 'a.tig' is unchanged.
+        final JSGLR1ParseResult reparsed2 = parser.parse("1 + 2", "Module", resource2);
+        assertTrue(reparsed2.getAst().isPresent());
+        asts.put(resource2, reparsed2.getAst().get());
+        final MultiFileResult reanalyzed = multiFileAnalyzer.analyze(root, asts, contextManager.get(root), new IOAgent());
+        assertTrue(reanalyzed.keyedMessages.isEmpty());
+        final ConstraintAnalyzer.@Nullable Result reanalyzedResult1 = reanalyzed.getResult(resource1);
+        assertNotNull(reanalyzedResult1);
+        assertNotNull(reanalyzedResult1.analysis);
+        // Unchanged 'a.tig' is passed to the analysis as cached, which only updates its analysis and keeps its AST.
+        assertSame(result1.ast, reanalyzedResult1.ast);
+        final ConstraintAnalyzer.@Nullable Result reanalyzedResult2 = reanalyzed.getResult(resource2);
+        assertNotNull(reanalyzedResult2);
+        assertNotNull(reanalyzedResult2.ast);
+        assertNotNull(reanalyzedResult2.analysis);
+        // Changed 'b.tig' is analyzed again, which produces a new AST.
+        assertNotSame(result2.ast, reanalyzedResult2.ast);
+
+        // Change only the layout of 'a.tig': its AST is equal, but has different origins, so it must be analyzed again.
+        final JSGLR1ParseResult reparsed1 = parser.parse("1  +  1", "Module", resource1);
+        assertTrue(reparsed1.getAst().isPresent());
+        assertEquals(parsed1.getAst().get(), reparsed1.getAst().get());
+        asts.put(resource1, reparsed1.getAst().get());
+        final MultiFileResult relayouted = multiFileAnalyzer.analyze(root, asts, contextManager.get(root), new IOAgent());
+        final ConstraintAnalyzer.@Nullable Result relayoutedResult1 = relayouted.getResult(resource1);
+        assertNotNull(relayoutedResult1);
+        assertNotNull(relayoutedResult1.ast);
+        assertNotSame(reanalyzedResult1.ast, relayoutedResult1.ast);
+        final ConstraintAnalyzer.@Nullable Result relayoutedResult2 = relayouted.getResult(resource2);
+        assertNotNull(relayoutedResult2);
+        assertSame(reanalyzedResult2.ast, relayoutedResult2.ast);
+    }
+
+    @Test void analyzeMultipleProjectPerFile() throws InterruptedException, ConstraintAnalyzerException {
+        final ConstraintAnalyzerContextManager contextManager = new ConstraintAnalyzerContextManager();
+        final ResourceKey root = new SimpleResourceKey(qualifier, "");
+        final ResourceKey resource1 = new SimpleResourceKey(qualifier, "a.tig");
+        final JSGLR1ParseResult parsed1 = parser.parse("1 + 1", "Module", resource1);
+        assertTrue(parsed1.getAst().isPresent());
+        final ResourceKey resource2 = new SimpleResourceKey(qualifier, "b.tig");
+        final JSGLR1ParseResult parsed2 = parser.parse("1 + nil", "Module", resource2);
+        assertTrue(parsed2.getAst().isPresent());
+        // Messages of a multi-file analysis are attributed to resources through the resource keys that the parser
+        // attaches to the ASTs.
+        assertEquals(resource1, ResourceKeyAttachment.getResourceKey(parsed1.getAst().get()));
+        assertEquals(resource2, ResourceKeyAttachment.getResourceKey(parsed2.getAst().get()));
+        final HashMap<ResourceKey, IStrategoTerm> asts = new HashMap<>();
+        asts.put(resource1, parsed1.getAst().get());
+        asts.put(resource2, parsed2.getAst().get());
+        final MultiFileResult result = multiFileAnalyzer.analyze(root, asts, contextManager.get(root), new IOAgent());
+        final @Nullable SingleFileResult fileResult1 = projectFile(result, resource1);
+        assertNotNull(fileResult1);
+        assertTrue(fileResult1.messages.isEmpty());
+        final @Nullable SingleFileResult fileResult2 = projectFile(result, resource2);
+        assertNotNull(fileResult2);
+        assertTrue(fileResult2.messages.containsError());
+
+        // Fix the error in 'b.tig': only the projection of 'b.tig' changes.
+        final JSGLR1ParseResult reparsed2 = parser.parse("1 + 2", "Module", resource2);
+        assertTrue(reparsed2.getAst().isPresent());
+        asts.put(resource2, reparsed2.getAst().get());
+        final MultiFileResult edited = multiFileAnalyzer.analyze(root, asts, contextManager.get(root), new IOAgent());
+        assertEquals(fileResult1, projectFile(edited, resource1));
+        final @Nullable SingleFileResult editedFileResult2 = projectFile(edited, resource2);
+        assertNotNull(editedFileResult2);
+        assertTrue(editedFileResult2.messages.isEmpty());
+        assertNotEquals(fileResult2, editedFileResult2);
+
+        // Add 'c.tig' with an error: it is analyzed, while the projections of the other files do not change.
+        final ResourceKey resource3 = new SimpleResourceKey(qualifier, "c.tig");
+        final JSGLR1ParseResult parsed3 = parser.parse("nil + 1", "Module", resource3);
+        assertTrue(parsed3.getAst().isPresent());
+        asts.put(resource3, parsed3.getAst().get());
+        final MultiFileResult added = multiFileAnalyzer.analyze(root, asts, contextManager.get(root), new IOAgent());
+        final @Nullable SingleFileResult addedFileResult3 = projectFile(added, resource3);
+        assertNotNull(addedFileResult3);
+        assertTrue(addedFileResult3.messages.containsError());
+        assertEquals(fileResult1, projectFile(added, resource1));
+        assertEquals(editedFileResult2, projectFile(added, resource2));
+
+        // Remove 'c.tig': it has no result and no messages anymore, while the other projections do not change.
+        asts.remove(resource3);
+        final MultiFileResult removed = multiFileAnalyzer.analyze(root, asts, contextManager.get(root), new IOAgent());
+        assertNull(projectFile(removed, resource3));
+        assertTrue(removed.keyedMessages.getMessages(resource3).isEmpty());
+        assertTrue(removed.keyedMessages.isEmpty());
+        assertEquals(fileResult1, projectFile(removed, resource1));
+        assertEquals(editedFileResult2, projectFile(removed, resource2));
+    }
+
+    @Test void analyzeManyConcurrentlyInOrder() throws InterruptedException, ConstraintAnalyzerException {
+        // Enough results for the analyzer to process them in concurrent chunks, each file with several errors.
+        final int fileCount = 160;
+        final HashMap<ResourceKey, IStrategoTerm> asts = new HashMap<>();
+        for(int i = 0; i < fileCount; ++i) {
+            final ResourceKey resource = new SimpleResourceKey(qualifier, "file" + i + ".tig");
+            final JSGLR1ParseResult parsed = parser.parse("(1 + nil) + (nil + " + i + ")", "Module", resource);
+            assertTrue(parsed.getAst().isPresent());
+            asts.put(resource, parsed.getAst().get());
+        }
+        final MultiFileResult result = analyzer.analyze(null, asts, new ConstraintAnalyzerContext(), new IOAgent());
+        assertEquals(fileCount, result.results.size());
+        assertEquals(fileCount, result.keyedMessages.size());
+
+        // Analyzing each file on its own processes its single result sequentially, which must produce the same
+        // messages, in the same order.
+        for(Map.Entry<ResourceKey, IStrategoTerm> entry : asts.entrySet()) {
+            final ResourceKey resource = entry.getKey();
+            final SingleFileResult sequentialResult =
+                analyzer.analyze(resource, entry.getValue(), new ConstraintAnalyzerContext(), new IOAgent());
+            final Messages messages = result.keyedMessages.getMessages(resource);
+            assertTrue(messages.containsError());
+            assertEquals(sequentialResult.messages, messages, resource.toString());
+        }
+
+        // Processing results concurrently must be deterministic.
+        final MultiFileResult reanalyzed = analyzer.analyze(null, asts, new ConstraintAnalyzerContext(), new IOAgent());
+        assertEquals(result.keyedMessages, reanalyzed.keyedMessages);
+    }
+
+
+    /**
+     * Projects the result of a multi-file analysis onto the file for {@code resource}, in the same way as the
+     * generated AnalyzeProjectFile task.
+     */
+    private static @Nullable SingleFileResult projectFile(MultiFileResult result, ResourceKey resource) {
+        final ConstraintAnalyzer.@Nullable Result fileResult = result.getResult(resource);
+        if(fileResult == null) {
+            return null;
+        }
+        return new SingleFileResult(fileResult.ast, fileResult.analysis, result.keyedMessages.getMessages(resource));
+    }
 }
@@ -0,0 +1,173 @@
+package mb.tiger;
+
+import mb.jsglr.common.ResourceKeyAttachment;
+import mb.jsglr2.common.JSGLR2IncrementalParser;
+import mb.jsglr2.common.JSGLR2ParseResult;
+import mb.jsglr2.common.JSGLR2ParseTable;
+import mb.jsglr2.common.JSGLR2ParseTableException;
+import mb.jsglr2.common.JSGLR2Parser;
+import mb.jsglr2.common.JSGLR2ParserPool;
+import mb.jsglr2.common.JSGLR2ParserVariant;
+import mb.resource.ResourceKey;
+import mb.resource.SimpleResourceKey;
+import org.junit.jupiter.api.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.interpreter.terms.ITermFactory;
+import org.spoofax.terms.TermFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TigerJSGLR2ParserTest {
+    private static final String parseTableResource = "mb/tiger/target/metaborg/sdf.tbl";
+
+    private final ITermFactory termFactory = new TermFactory();
+    private final ResourceKey resource = new SimpleResourceKey("test", "a.tig");
+
+    @Test void parse() throws IOException, JSGLR2ParseTableException, InterruptedException {
+        final JSGLR2ParseTable parseTable = readParseTable();
+        for(JSGLR2ParserVariant variant : JSGLR2ParserVariant.values()) {
+            final JSGLR2Parser parser = new JSGLR2Parser(parseTable, variant);
+            final JSGLR2ParseResult result = parser.parse("1 + 21", "Module", resource);
+            assertTrue(result.hasSucceeded(), variant.toString());
+            assertTrue(result.getMessages().isEmpty(), variant.toString());
+            assertTrue(result.getAst().isPresent(), variant.toString());
+            final IStrategoTerm ast = result.getAst().get();
+            assertEquals(module(add(integer("1"), integer("21"))), ast, variant.toString());
+            assertEquals(resource, ResourceKeyAttachment.getResourceKey(ast), variant.toString());
+            assertTrue(result.getTokens().isPresent(), variant.toString());
+            assertFalse(result.getTokens().get().isEmpty(), variant.toString());
+        }
+    }
+
+    @Test void parseWithoutResource() throws IOException, JSGLR2ParseTableException, InterruptedException {
+        final JSGLR2Parser parser = new JSGLR2Parser(readParseTable(), JSGLR2ParserVariant.Optimized);
+        final JSGLR2ParseResult result = parser.parse("1", "Module");
+        assertTrue(result.hasSucceeded());
+        assertTrue(result.getAst().isPresent());
+        assertNull(ResourceKeyAttachment.getResourceKey(result.getAst().get()));
+    }
+
+    @Test void parseIncrementallyAfterChange() throws IOException, JSGLR2ParseTableException, InterruptedException {
+        final JSGLR2Parser parser = new JSGLR2Parser(readParseTable(), JSGLR2ParserVariant.Incremental);
+        final JSGLR2ParseResult first = parser.parse("1 + 21", "Module", resource);
+        assertTrue(first.hasSucceeded());
+        final JSGLR2ParseResult failed = parser.parse("1 +", "Module", resource);
+        assertTrue(failed.hasFailed());
+        assertFalse(failed.getMessages().isEmpty());
+        final JSGLR2ParseResult second = parser.parse("1 + 22", "Module", resource);
+        assertTrue(second.hasSucceeded());
+        assertTrue(second.getAst().isPresent());
+        assertEquals(module(add(integer("1"), integer("22"))), second.getAst().get());
+    }
+
+    @Test void parseFailureHasResourceAndRegion() throws IOException, JSGLR2ParseTableException, InterruptedException {
+        final JSGLR2Parser parser = new JSGLR2Parser(readParseTable(), JSGLR2ParserVariant.Optimized);
+        final JSGLR2ParseResult result = parser.parse("1 + )", "Module", resource);
+        assertTrue(result.hasFailed());
+        assertEquals(1, result.getMessages().size());
+        result.getMessages().accept((text, exception, severity, r, region) -> {
+            assertTrue(text.contains(resource.toString()), text);
+            assertNotNull(region);
+            assertTrue(region.getStartOffset() <= 5);
+            return true;
+        });
+    }
+
+    @Test void poolReusesParsers() throws IOException, JSGLR2ParseTableException, InterruptedException {
+        final JSGLR2ParserPool pool = new JSGLR2ParserPool(readParseTable(), JSGLR2ParserVariant.Optimized, 1);
+        final JSGLR2Parser parser = pool.borrow();
+        final JSGLR2Parser other = pool.borrow();
+        assertNotSame(parser, other);
+        pool.release(parser);
+        pool.release(other); // Discarded: the pool is full.
+        assertSame(parser, pool.borrow());
+        pool.release(parser);
+
+        final JSGLR2ParseResult result = pool.parse("1 + 21", "Module", resource);
+        assertTrue(result.hasSucceeded());
+        assertTrue(result.getAst().isPresent());
+        assertEquals(module(add(integer("1"), integer("21"))), result.getAst().get());
+        assertSame(parser, pool.borrow());
+    }
+
+    @Test void poolRejectsIncrementalVariant() throws IOException, JSGLR2ParseTableException {
+        final JSGLR2ParseTable parseTable = readParseTable();
+        assertThrows(IllegalArgumentException.class, () -> new JSGLR2ParserPool(parseTable, JSGLR2ParserVariant.Incremental));
+    }
+
+    @Test void incrementalParserReusesPreviousParse() throws IOException, JSGLR2ParseTableException, InterruptedException {
+        final JSGLR2IncrementalParser parser = new JSGLR2IncrementalParser(readParseTable());
+        assertFalse(parser.hasPreviousParse(resource));
+        final JSGLR2ParseResult first = parser.parse("1 + 21", "Module", resource);
+        assertTrue(first.hasSucceeded());
+        assertTrue(parser.hasPreviousParse(resource));
+
+        // Edited reparse of the same resource reuses the previous parse.
+        final JSGLR2ParseResult second = parser.parse("1 + 22", "Module", resource);
+        assertTrue(second.hasSucceeded());
+        assertTrue(second.getAst().isPresent());
+        assertEquals(module(add(integer("1"), integer("22"))), second.getAst().get());
+        assertEquals(resource, ResourceKeyAttachment.getResourceKey(second.getAst().get()));
+        assertTrue(parser.hasPreviousParse(resource));
+
+        // Failed parses are not retained.
+        final JSGLR2ParseResult failed = parser.parse("1 +", "Module", resource);
+        assertTrue(failed.hasFailed());
+        assertFalse(parser.hasPreviousParse(resource));
+        assertTrue(parser.parse("1 + 23", "Module", resource).hasSucceeded());
+        assertTrue(parser.hasPreviousParse(resource));
+
+        // Parses without a resource are not retained.
+        assertTrue(parser.parse("1", "Module").hasSucceeded());
+        assertTrue(parser.hasPreviousParse(resource));
+    }
+
+    @Test void incrementalParserForgetsResources() throws IOException, JSGLR2ParseTableException, InterruptedException {
+        final ResourceKey otherResource = new SimpleResourceKey("test", "b.tig");
+        final JSGLR2IncrementalParser parser = new JSGLR2IncrementalParser(readParseTable(), 1);
+        assertTrue(parser.parse("1 + 21", "Module", resource).hasSucceeded());
+        assertTrue(parser.hasPreviousParse(resource));
+
+        parser.forget(resource);
+        assertFalse(parser.hasPreviousParse(resource));
+
+        // Parsing another resource evicts the least recently parsed resource when the capacity is exceeded.
+        assertTrue(parser.parse("1 + 21", "Module", resource).hasSucceeded());
+        assertTrue(parser.parse("2", "Module", otherResource).hasSucceeded());
+        assertFalse(parser.hasPreviousParse(resource));
+        assertTrue(parser.hasPreviousParse(otherResource));
+
+        // Forgotten resources are parsed from scratch.
+        final JSGLR2ParseResult result = parser.parse("1 + 22", "Module", resource);
+        assertTrue(result.hasSucceeded());
+        assertTrue(result.getAst().isPresent());
+        assertEquals(module(add(integer("1"), integer("22"))), result.getAst().get());
+
+        parser.clear();
+        assertFalse(parser.hasPreviousParse(resource));
+        assertFalse(parser.hasPreviousParse(otherResource));
+    }
+
+
+    private JSGLR2ParseTable readParseTable() throws IOException, JSGLR2ParseTableException {
+        try(final InputStream inputStream = TigerJSGLR2ParserTest.class.getClassLoader().getResourceAsStream(parseTableResource)) {
+            assertNotNull(inputStream, "Cannot find parse table resource '" + parseTableResource + "'");
+            return JSGLR2ParseTable.fromStream(inputStream);
+        }
+    }
+
+    private IStrategoTerm module(IStrategoTerm exp) {
+        return termFactory.makeAppl(termFactory.makeConstructor("Mod", 1), exp);
+    }
+
+    private IStrategoTerm add(IStrategoTerm left, IStrategoTerm right) {
+        return termFactory.makeAppl(termFactory.makeConstructor("Plus", 2), left, right);
+    }
+
+    private IStrategoTerm integer(String value) {
+        return termFactory.makeAppl(termFactory.makeConstructor("Int", 1), termFactory.makeString(value));
+    }
+}
@@ -1,14 +1,34 @@
 package mb.tiger;
 
+import mb.common.region.Region;
+import mb.jsglr.common.LazyTokens;
+import mb.jsglr.common.TermRegionIndex;
+import mb.jsglr.common.TermTracer;
 import mb.jsglr1.common.JSGLR1ParseResult;
+import mb.jsglr1.common.JSGLR1ParseTable;
+import mb.jsglr1.common.JSGLR1ParseTableException;
+import mb.jsglr1.common.JSGLR1Parser;
+import mb.jsglr1.common.JSGLR1ParserOptions;
+import mb.jsglr1.common.JSGLR1ParserPool;
+import mb.log.noop.NoopLoggerFactory;
 import org.junit.jupiter.api.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
 import org.spoofax.interpreter.terms.ITermFactory;
 import org.spoofax.terms.TermFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TigerParserTest {
-    private final TigerParser parser = new TigerParserFactory().create();
+    private final TigerParser parser = new TigerParserFactory(new NoopLoggerFactory()).create();
     private final ITermFactory termFactory = new TermFactory();
 
     @Test void parse() throws InterruptedException {
@@ -22,4 +42,191 @@ class TigerParserTest {
             termFactory.makeAppl(termFactory.makeConstructor("Int", 1), termFactory.makeString("1"))));
         assertTrue(result.getMessages().isEmpty());
     }
+
+    @Test void parseReusesPooledParser() throws IOException, JSGLR1ParseTableException, InterruptedException {
+        final JSGLR1ParserPool pool = new JSGLR1ParserPool(readParseTable(), TigerParser.defaultOptions(), 1);
+        final JSGLR1Parser parser = pool.borrow();
+        pool.release(parser);
+        assertSame(parser, pool.borrow());
+        pool.release(parser);
+
+        // Erroneous parses, with and without recovery, leave no messages or options behind in the pooled parser.
+        final JSGLR1ParseResult recovered = pool.parse("1 + + 2", "Module", null);
+        assertTrue(recovered.getMessages().containsError());
+        final JSGLR1ParseResult failed = pool.parse("1 +", "Module", null, TigerParser.defaultOptions().withRecovery(false));
+        assertTrue(failed.hasFailed());
+        assertTrue(failed.getMessages().containsError());
+        assertSame(parser, pool.borrow());
+        pool.release(parser);
+
+        final JSGLR1ParseResult result = pool.parse("1", "Module", null);
+        assertTrue(result.hasSucceeded());
+        assertFalse(result.hasRecovered());
+        assertTrue(result.getMessages().isEmpty());
+        assertSame(parser, pool.borrow());
+    }
+
+    @Test void parseWithoutRecovery() throws InterruptedException {
+        final JSGLR1ParserOptions options = TigerParser.defaultOptions().withRecovery(false);
+        final JSGLR1ParseResult result = parser.parse("1 + + 2", "Module", null, options);
+        assertTrue(result.hasFailed());
+        assertFalse(result.hasRecovered());
+        assertFalse(result.getAst().isPresent());
+        assertTrue(result.getMessages().containsError());
+        // Options only apply to that parse.
+        assertTrue(parser.parse("1 + 2", "Module").hasSucceeded());
+    }
+
+    @Test void parseWithShortTimeout() throws InterruptedException {
+        final StringBuilder text = new StringBuilder("1");
+        for(int i = 0; i < 100000; ++i) {
+            text.append(" + 1");
+        }
+        final JSGLR1ParserOptions options = TigerParser.defaultOptions().withTimeout(1);
+        final JSGLR1ParseResult result = parser.parse(text.toString(), "Module", null, options);
+        assertTrue(result.hasFailed());
+        assertFalse(result.getAst().isPresent());
+        assertTrue(result.getMessages().containsError());
+        // Options only apply to that parse.
+        assertTrue(parser.parse("1 + 2", "Module").hasSucceeded());
+    }
+
+    @Test void parseExtractsTokensLazily() throws InterruptedException {
+        final JSGLR1ParseResult result = parser.parse("1 + 2", "Module");
+        assertTrue(result.getLazyTokens().isPresent());
+        final LazyTokens tokens = result.getLazyTokens().get();
+        assertFalse(tokens.isExtracted());
+        assertTrue(result.getTokens().isPresent());
+        assertTrue(tokens.isExtracted());
+        assertFalse(result.getTokens().get().isEmpty());
+    }
+
+    @Test void compareLazyTokensWithoutExtracting() throws InterruptedException {
+        final LazyTokens tokens = parser.parse("1 + 2", "Module").getLazyTokens().get();
+        final LazyTokens sameTokens = parser.parse("1 + 2", "Module").getLazyTokens().get();
+        final LazyTokens otherLayoutTokens = parser.parse("1+2", "Module").getLazyTokens().get();
+        assertEquals(tokens, sameTokens);
+        assertEquals(tokens.hashCode(), sameTokens.hashCode());
+        assertNotEquals(tokens, otherLayoutTokens);
+        assertFalse(tokens.isExtracted());
+        assertFalse(sameTokens.isExtracted());
+        assertFalse(otherLayoutTokens.isExtracted());
+    }
+
+    @Test void lazyTokensWithoutTokenizer() {
+        // ASTs without a tokenizer attached, for example deserialized ASTs, have no tokens to extract or compare.
+        final IStrategoTerm ast = termFactory.makeAppl(termFactory.makeConstructor("Mod", 1),
+            termFactory.makeAppl(termFactory.makeConstructor("Int", 1), termFactory.makeString("1")));
+        final LazyTokens tokens = LazyTokens.fromAst(ast);
+        final LazyTokens sameAstTokens = LazyTokens.fromAst(ast);
+        assertEquals(tokens, tokens);
+        assertNotEquals(tokens, sameAstTokens);
+        assertThrows(IllegalStateException.class, tokens::get);
+        assertFalse(tokens.isExtracted());
+    }
+
+    @Test void selectSmallestTermEncompassingRegion() throws InterruptedException {
+        final JSGLR1ParseResult result = parser.parse("1 + 21", "Module");
+        assertTrue(result.getAst().isPresent());
+        final IStrategoTerm ast = result.getAst().get();
+        final IStrategoTerm int21 = termFactory.makeAppl(termFactory.makeConstructor("Int", 1), termFactory.makeString("21"));
+        assertEquals(int21, TermTracer.getSmallestTermEncompassingRegion(ast, Region.fromOffsets(4, 6)));
+        assertEquals(int21, TermTracer.getSmallestTermEncompassingRegion(ast, Region.fromOffsets(5, 5)));
+        assertEquals(ast, TermTracer.getSmallestTermEncompassingRegion(ast, Region.fromOffsets(0, 6)));
+        assertTrue(result.getRegionIndex().isPresent());
+        final List<IStrategoTerm> termsAt5 = result.getRegionIndex().get().getTermsAtOffset(5).asUnmodifiable();
+        assertTrue(termsAt5.contains(int21));
+        assertEquals(ast, termsAt5.get(termsAt5.size() - 1));
+    }
+
+    @Test void regionIndexMatchesTraversal() throws InterruptedException {
+        // The declarations in the last text are adjacent: the first one ends at the offset where the second one starts.
+        for(String text : new String[]{"1+21", "1 + 21", "(1+2)*-3", "let var a:=1var b:=2 in a end"}) {
+            final JSGLR1ParseResult result = parser.parse(text, "Module");
+            assertTrue(result.getAst().isPresent(), text);
+            assertTrue(result.getRegionIndex().isPresent(), text);
+            final IStrategoTerm ast = result.getAst().get();
+            final TermRegionIndex index = result.getRegionIndex().get();
+            for(int startOffset = 0; startOffset <= text.length(); ++startOffset) {
+                // Includes empty regions at the boundary between adjacent terms.
+                assertEquals(termsAtOffsetByTraversal(ast, startOffset), index.getTermsAtOffset(startOffset).asUnmodifiable(), text + " @ " + startOffset);
+                for(int endOffset = startOffset; endOffset <= text.length(); ++endOffset) {
+                    final Region region = Region.fromOffsets(startOffset, endOffset);
+                    assertSame(smallestTermByTraversal(ast, region), index.getSmallestTermEncompassingRegion(region), text + " @ " + region);
+                }
+            }
+        }
+    }
+
+    @Test void parseWithSerializedParseTable() throws IOException, JSGLR1ParseTableException, InterruptedException {
+        final JSGLR1ParseTable parseTable = readParseTable();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        parseTable.toSerializedStream(outputStream);
+        final JSGLR1ParseTable deserializedParseTable = JSGLR1ParseTable.fromSerializedStream(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        final JSGLR1ParseResult result = new JSGLR1Parser(deserializedParseTable).parse("1 + 21", "Module");
+        assertTrue(result.hasSucceeded());
+        assertTrue(result.getMessages().isEmpty());
+        assertTrue(result.getAst().isPresent());
+        assertEquals(termFactory.makeAppl(termFactory.makeConstructor("Mod", 1),
+            termFactory.makeAppl(termFactory.makeConstructor("Plus", 2),
+                termFactory.makeAppl(termFactory.makeConstructor("Int", 1), termFactory.makeString("1")),
+                termFactory.makeAppl(termFactory.makeConstructor("Int", 1), termFactory.makeString("21")))),
+            result.getAst().get());
+        assertTrue(result.getTokens().isPresent());
+    }
+
+
+    private static JSGLR1ParseTable readParseTable() throws IOException, JSGLR1ParseTableException {
+        try(final InputStream inputStream = TigerParserTest.class.getClassLoader().getResourceAsStream("mb/tiger/target/metaborg/sdf.tbl")) {
+            assertNotNull(inputStream);
+            return JSGLR1ParseTable.fromStream(inputStream);
+        }
+    }
+
+    private static ArrayList<IStrategoTerm> preOrderTermsWithRegion(IStrategoTerm ast) {
+        final ArrayList<IStrategoTerm> terms = new ArrayList<>();
+        final ArrayDeque<IStrategoTerm> stack = new ArrayDeque<>();
+        stack.push(ast);
+        while(!stack.isEmpty()) {
+            final IStrategoTerm term = stack.pop();
+            if(TermTracer.getRegion(term) != null) {
+                terms.add(term);
+            }
+            for(int i = term.getSubtermCount() - 1; i >= 0; --i) {
+                stack.push(term.getSubterm(i));
+            }
+        }
+        return terms;
+    }
+
+    private static IStrategoTerm smallestTermByTraversal(IStrategoTerm ast, Region region) {
+        IStrategoTerm smallest = ast;
+        int smallestLength = Integer.MAX_VALUE;
+        for(IStrategoTerm term : preOrderTermsWithRegion(ast)) {
+            final Region termRegion = TermTracer.getRegion(term);
+            if(termRegion.contains(region) && termRegion.length() < smallestLength) {
+                smallest = term;
+                smallestLength = termRegion.length();
+            }
+        }
+        return smallest;
+    }
+
+    private static List<IStrategoTerm> termsAtOffsetByTraversal(IStrategoTerm ast, int offset) {
+        final ArrayList<IStrategoTerm> terms = preOrderTermsWithRegion(ast);
+        final ArrayList<Integer> indices = new ArrayList<>();
+        for(int i = 0; i < terms.size(); ++i) {
+            if(TermTracer.getRegion(terms.get(i)).contains(Region.fromOffsets(offset, offset))) {
+                indices.add(i);
+            }
+        }
+        // From the smallest to the largest term, subterms before terms with the same region.
+        indices.sort(Comparator.comparingInt((Integer i) -> TermTracer.getRegion(terms.get(i)).length()).thenComparing(Comparator.reverseOrder()));
+        final ArrayList<IStrategoTerm> result = new ArrayList<>();
+        for(int i : indices) {
+            result.add(terms.get(i));
+        }
+        return result;
+    }
 }
@@ -1,8 +1,10 @@
 package mb.tiger;
 
 import mb.jsglr1.common.JSGLR1ParseResult;
+import mb.log.noop.NoopLoggerFactory;
 import mb.stratego.common.StrategoException;
 import mb.stratego.common.StrategoRuntime;
+import mb.stratego.common.StrategoRuntimePool;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.jupiter.api.Test;
 import org.spoofax.interpreter.library.IOAgent;
@@ -12,7 +14,7 @@ import org.spoofax.interpreter.terms.IStrategoTerm;
 import static org.junit.jupiter.api.Assertions.*;
 
 class TigerStrategoRuntimeBuilderTest {
-    private final TigerParser parser = new TigerParserFactory().create();
+    private final TigerParser parser = new TigerParserFactory(new NoopLoggerFactory()).create();
     private final StrategoRuntime runtime = new TigerStrategoRuntimeBuilderFactory().create().build();
 
     @Test void parseUnparse() throws InterruptedException, StrategoException {
@@ -25,4 +27,16 @@ class TigerStrategoRuntimeBuilderTest {
         final String unparsed = unparsedStringTerm.stringValue();
         assertEquals(str, unparsed);
     }
+
+    @Test void parseUnparsePooled() throws InterruptedException, StrategoException {
+        final StrategoRuntimePool pool = new TigerStrategoRuntimeBuilderFactory().createPool();
+        final JSGLR1ParseResult parsed = parser.parse("1 + 2", "Module");
+        assertTrue(parsed.getAst().isPresent());
+        // Invoke twice, such that the second invocation reuses the runtime of the first one.
+        for(int i = 0; i < 2; ++i) {
+            final @Nullable IStrategoTerm unparsedTerm = pool.invoke("pp-Tiger-string", parsed.getAst().get(), new IOAgent());
+            assertNotNull(unparsedTerm);
+            assertEquals("1 + 2", ((IStrategoString)unparsedTerm).stringValue());
+        }
+    }
 }
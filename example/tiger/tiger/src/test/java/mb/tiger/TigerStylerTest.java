@@ -2,19 +2,23 @@ package mb.tiger;
 
 import mb.common.region.Region;
 import mb.common.style.Color;
+import mb.common.style.CompactStyling;
 import mb.common.style.Styling;
 import mb.common.style.TokenStyle;
 import mb.common.token.TokenTypes;
 import mb.jsglr1.common.JSGLR1ParseResult;
+import mb.jsglr1.common.JSGLR1Parser;
 import mb.log.noop.NoopLoggerFactory;
 import org.junit.jupiter.api.Test;
+import org.spoofax.jsglr.client.imploder.ImploderOriginTermFactory;
+import org.spoofax.terms.TermFactory;
 
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class TigerStylerTest {
-    private final TigerParser parser = new TigerParserFactory().create();
+    private final TigerParser parser = new TigerParserFactory(new NoopLoggerFactory()).create();
     private final TigerStyler styler = new TigerStylerFactory(new NoopLoggerFactory()).create();
 
     @Test void style() throws InterruptedException {
@@ -28,6 +32,10 @@ class TigerStylerTest {
         final Styling styling = styler.style(parseOutput.getTokens().get());
         final ArrayList<TokenStyle> stylePerToken = styling.getStylePerToken();
         assertEquals(5, stylePerToken.size());
+        assertEquals(5, styling.size());
+        assertEquals(4, styling.getStartOffset(4));
+        assertEquals(6, styling.getEndOffset(4));
+        assertEquals(stylePerToken.get(4).getStyle(), styling.getStyle(4));
 
         final TokenStyle ts0 = stylePerToken.get(0);
         assertEquals(TokenTypes.number(), ts0.getToken().getType());
@@ -82,4 +90,50 @@ class TigerStylerTest {
         assertFalse(ts4.getStyle().isStrikeout());
         assertFalse(ts4.getStyle().isUnderscore());
     }
+
+    @Test void styleRegion() throws InterruptedException {
+        final JSGLR1ParseResult parseOutput = parser.parse("1 + 21", "Module");
+        assertTrue(parseOutput.getTokens().isPresent());
+
+        final Styling styling = styler.style(parseOutput.getTokens().get(), Region.fromOffsets(2, 4));
+        assertEquals(2, styling.size());
+        assertEquals(2, styling.getStartOffset(0));
+        assertEquals(3, styling.getEndOffset(0));
+        assertEquals(3, styling.getStartOffset(1));
+        assertEquals(4, styling.getEndOffset(1));
+    }
+
+    @Test void styleShared() throws InterruptedException {
+        final JSGLR1ParseResult parseOutput = parser.parse("1 + 21", "Module");
+        assertTrue(parseOutput.getTokens().isPresent());
+
+        final Styling styling = styler.style(parseOutput.getTokens().get());
+        assertTrue(styling instanceof CompactStyling);
+        final CompactStyling compactStyling = (CompactStyling) styling;
+        // Number, layout, and operator styles.
+        assertEquals(3, compactStyling.getStyleCount());
+        assertEquals(compactStyling.getStyleId(0), compactStyling.getStyleId(4));
+        assertEquals(compactStyling.getStyleId(1), compactStyling.getStyleId(3));
+        assertSame(styling.getStyle(0), styling.getStyle(4));
+    }
+
+    @Test void styleTermsOfDifferentTermFactories() throws InterruptedException {
+        final String text = "let var a := 1 function f(b : int) = b + 21 in f(a) end";
+        final JSGLR1ParseResult parseOutput = parser.parse(text, "Module");
+        assertTrue(parseOutput.getTokens().isPresent());
+        // Parser with its own term factory, which creates constructors that are equal but not identical to the ones of
+        // the pooled parsers.
+        final JSGLR1Parser otherParser = new JSGLR1Parser(TigerParseTable.fromLoaderResources(new NoopLoggerFactory()).parseTable, new ImploderOriginTermFactory(new TermFactory()));
+        final JSGLR1ParseResult otherParseOutput = otherParser.parse(text, "Module");
+        assertTrue(otherParseOutput.getTokens().isPresent());
+
+        final Styling styling = styler.style(parseOutput.getTokens().get());
+        final Styling otherStyling = styler.style(otherParseOutput.getTokens().get());
+        assertEquals(styling.size(), otherStyling.size());
+        for(int i = 0; i < styling.size(); ++i) {
+            assertEquals(styling.getStartOffset(i), otherStyling.getStartOffset(i));
+            assertEquals(styling.getEndOffset(i), otherStyling.getEndOffset(i));
+            assertEquals(styling.getStyle(i), otherStyling.getStyle(i));
+        }
+    }
 }
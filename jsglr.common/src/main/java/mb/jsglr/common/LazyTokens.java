@@ -0,0 +1,98 @@
+package mb.jsglr.common;
+
+import mb.common.token.TokenStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+import org.spoofax.jsglr.client.imploder.ImploderAttachment;
+
+import java.io.Serializable;
+
+/**
+ * Tokens of a parsed AST, which are only {@link TokenUtil#extract(IStrategoTerm) extracted} from the tokenizer
+ * attached to the AST when they are first {@link #get() requested}, as many consumers of a parse result only need the
+ * AST. Extracted tokens are not serialized, and neither is the tokenizer attached to the AST, so tokens cannot be
+ * requested after deserialization.
+ */
+public class LazyTokens implements Serializable {
+    private static final long serialVersionUID = 2;
+
+    private final IStrategoTerm ast;
+    private transient @Nullable TokenStream<IStrategoTerm> tokens;
+
+
+    private LazyTokens(IStrategoTerm ast) {
+        this.ast = ast;
+    }
+
+    /**
+     * Creates lazy tokens for given {@code ast}, which must have an imploder attachment.
+     */
+    public static LazyTokens fromAst(IStrategoTerm ast) {
+        return new LazyTokens(ast);
+    }
+
+
+    /**
+     * Gets the tokens, extracting them first if that has not been done yet.
+     *
+     * @throws IllegalStateException When the tokens have not been extracted yet and the AST has no tokenizer attached,
+     *                               for example after deserialization.
+     */
+    public synchronized TokenStream<IStrategoTerm> get() {
+        if(tokens == null) {
+            if(ImploderAttachment.get(ast) == null) {
+                throw new IllegalStateException("Cannot extract tokens; AST '" + ast + "' has no tokenizer attached, as it was deserialized or not created by a parser");
+            }
+            tokens = TokenUtil.extract(ast);
+        }
+        return tokens;
+    }
+
+    /**
+     * @return True if the tokens have been extracted, false otherwise.
+     */
+    public synchronized boolean isExtracted() {
+        return tokens != null;
+    }
+
+
+    @Override public boolean equals(@Nullable Object obj) {
+        if(this == obj) return true;
+        if(obj == null || getClass() != obj.getClass()) return false;
+        final LazyTokens other = (LazyTokens) obj;
+        if(!ast.equals(other.ast)) {
+            return false; // Different ASTs always have different tokens.
+        }
+        final @Nullable TokenStream<IStrategoTerm> tokens = getExtracted();
+        final @Nullable TokenStream<IStrategoTerm> otherTokens = other.getExtracted();
+        if(tokens != null && otherTokens != null) {
+            return tokens.equals(otherTokens);
+        }
+        // Equal ASTs parsed from equal texts have equal tokens: compare the texts instead of extracting tokens. Without
+        // a text, the tokens of either AST are unknown, so they are not considered equal.
+        final @Nullable String input = getInput(ast);
+        final @Nullable String otherInput = getInput(other.ast);
+        return input != null && input.equals(otherInput);
+    }
+
+    @Override public int hashCode() {
+        return ast.hashCode();
+    }
+
+    @Override public String toString() {
+        final @Nullable TokenStream<IStrategoTerm> tokens = getExtracted();
+        return tokens != null ? tokens.toString() : "LazyTokens(not extracted)";
+    }
+
+
+    private synchronized @Nullable TokenStream<IStrategoTerm> getExtracted() {
+        return tokens;
+    }
+
+    private static @Nullable String getInput(IStrategoTerm ast) {
+        final @Nullable ImploderAttachment attachment = ImploderAttachment.get(ast);
+        if(attachment == null) return null;
+        return attachment.getLeftToken().getTokenizer().getInput();
+    }
+}
@@ -0,0 +1,224 @@
+package mb.jsglr.common;
+
+import mb.common.region.Region;
+import mb.common.util.ListView;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.terms.attachments.AbstractTermAttachment;
+import org.spoofax.terms.attachments.TermAttachmentType;
+import org.spoofax.terms.attachments.VolatileTermAttachmentType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Index from source code regions to the terms of an AST that originate from them, which answers region queries in
+ * logarithmic time (plus the depth of the AST) instead of traversing the AST. Built once per AST with {@link
+ * #get(IStrategoTerm)}, which caches the index as an attachment of the AST.
+ *
+ * Queries assume that the region of a term contains the regions of its subterms, which holds for parsed ASTs.
+ */
+public class TermRegionIndex extends AbstractTermAttachment {
+    private static final long serialVersionUID = 1;
+    public static final TermAttachmentType<TermRegionIndex> TYPE =
+        new VolatileTermAttachmentType<>(TermRegionIndex.class);
+
+    private final IStrategoTerm ast;
+    // Terms with a region, sorted by start offset and then by pre-order, such that ancestors precede descendants.
+    private final int[] startOffsets;
+    private final int[] endOffsets;
+    // Index of the closest ancestor of each term that has a region, or -1 if it has none.
+    private final int[] parents;
+    private final IStrategoTerm[] terms;
+
+
+    private TermRegionIndex(IStrategoTerm ast, int[] startOffsets, int[] endOffsets, int[] parents, IStrategoTerm[] terms) {
+        this.ast = ast;
+        this.startOffsets = startOffsets;
+        this.endOffsets = endOffsets;
+        this.parents = parents;
+        this.terms = terms;
+    }
+
+    /**
+     * Gets the region index of given {@code ast}, building and attaching it if it does not exist yet.
+     */
+    public static TermRegionIndex get(IStrategoTerm ast) {
+        synchronized(ast) {
+            final @Nullable TermRegionIndex existing = ast.getAttachment(TYPE);
+            if(existing != null) {
+                return existing;
+            }
+            final TermRegionIndex index = build(ast);
+            ast.putAttachment(index);
+            return index;
+        }
+    }
+
+    /**
+     * Builds a region index for given {@code ast}, without attaching it.
+     */
+    public static TermRegionIndex build(IStrategoTerm ast) {
+        int size = 0;
+        int[] startOffsets = new int[64];
+        int[] endOffsets = new int[64];
+        int[] parents = new int[64];
+        IStrategoTerm[] terms = new IStrategoTerm[64];
+
+        // Pre-order traversal, tracking the index of the closest indexed ancestor of each term.
+        final ArrayDeque<IStrategoTerm> termStack = new ArrayDeque<>();
+        final ArrayDeque<Integer> parentStack = new ArrayDeque<>();
+        termStack.push(ast);
+        parentStack.push(-1);
+        while(!termStack.isEmpty()) {
+            final IStrategoTerm term = termStack.pop();
+            final int parent = parentStack.pop();
+            final @Nullable Region region = TermTracer.getRegion(term);
+            final int childParent;
+            if(region != null) {
+                if(size == terms.length) {
+                    final int capacity = size * 2;
+                    startOffsets = Arrays.copyOf(startOffsets, capacity);
+                    endOffsets = Arrays.copyOf(endOffsets, capacity);
+                    parents = Arrays.copyOf(parents, capacity);
+                    terms = Arrays.copyOf(terms, capacity);
+                }
+                startOffsets[size] = region.getStartOffset();
+                endOffsets[size] = region.getEndOffset();
+                parents[size] = parent;
+                terms[size] = term;
+                childParent = size;
+                ++size;
+            } else {
+                childParent = parent;
+            }
+            for(int i = term.getSubtermCount() - 1; i >= 0; --i) {
+                termStack.push(term.getSubterm(i));
+                parentStack.push(childParent);
+            }
+        }
+
+        // Sort by start offset, then by pre-order index. Pre-order is usually already sorted by start offset.
+        final long[] keys = new long[size];
+        boolean sorted = true;
+        for(int i = 0; i < size; ++i) {
+            keys[i] = ((long) startOffsets[i] << 32) | i;
+            if(i > 0 && startOffsets[i] < startOffsets[i - 1]) {
+                sorted = false;
+            }
+        }
+        if(sorted) {
+            return new TermRegionIndex(ast, Arrays.copyOf(startOffsets, size), Arrays.copyOf(endOffsets, size),
+                Arrays.copyOf(parents, size), Arrays.copyOf(terms, size));
+        }
+        Arrays.sort(keys);
+        final int[] newIndices = new int[size];
+        for(int i = 0; i < size; ++i) {
+            newIndices[(int) keys[i]] = i;
+        }
+        final int[] sortedStartOffsets = new int[size];
+        final int[] sortedEndOffsets = new int[size];
+        final int[] sortedParents = new int[size];
+        final IStrategoTerm[] sortedTerms = new IStrategoTerm[size];
+        for(int i = 0; i < size; ++i) {
+            final int newIndex = newIndices[i];
+            sortedStartOffsets[newIndex] = startOffsets[i];
+            sortedEndOffsets[newIndex] = endOffsets[i];
+            sortedParents[newIndex] = parents[i] == -1 ? -1 : newIndices[parents[i]];
+            sortedTerms[newIndex] = terms[i];
+        }
+        return new TermRegionIndex(ast, sortedStartOffsets, sortedEndOffsets, sortedParents, sortedTerms);
+    }
+
+
+    /**
+     * Gets the smallest term that encompasses given {@code region}. When a term and its subterm have the same region,
+     * the term is returned. When an empty region lies at the boundary between two terms of the same size, the first
+     * term is returned.
+     *
+     * @return Smallest term that encompasses given region, or the entire AST if no term encompasses the region.
+     */
+    public IStrategoTerm getSmallestTermEncompassingRegion(Region region) {
+        final ArrayList<Integer> indices = indicesEncompassing(region.getStartOffset(), region.getEndOffset());
+        int smallest = -1;
+        for(int index : indices) {
+            if(smallest == -1 || length(index) < length(smallest) || (length(index) == length(smallest) && index < smallest)) {
+                smallest = index;
+            }
+        }
+        return smallest == -1 ? ast : terms[smallest];
+    }
+
+    /**
+     * Gets the terms whose regions encompass given {@code offset}, from the smallest to the largest term. When a term
+     * and its subterm have the same region, both are returned, the subterm first. An offset at the boundary between
+     * two terms is encompassed by both terms.
+     */
+    public ListView<IStrategoTerm> getTermsAtOffset(int offset) {
+        final ArrayList<Integer> indices = indicesEncompassing(offset, offset);
+        // Deeper terms come later in pre-order, so a larger index goes first when lengths are equal.
+        indices.sort((i1, i2) -> length(i1) != length(i2) ? Integer.compare(length(i1), length(i2)) : Integer.compare(i2, i1));
+        final ArrayList<IStrategoTerm> result = new ArrayList<>(indices.size());
+        for(int index : indices) {
+            result.add(terms[index]);
+        }
+        return new ListView<>(result);
+    }
+
+
+    private ArrayList<Integer> indicesEncompassing(int startOffset, int endOffset) {
+        final ArrayList<Integer> indices = new ArrayList<>();
+        // Terms that encompass the region are the last term that starts at or before the start offset, or one of its
+        // ancestors.
+        addAncestorsEncompassing(lastIndexStartingBefore(startOffset + 1), startOffset, endOffset, indices);
+        if(startOffset == endOffset) {
+            // An empty region at the end of a term is also encompassed by that term, which does not need to be an
+            // ancestor of a term starting at the region. Such terms are the last term that starts before the region,
+            // or one of its ancestors.
+            addAncestorsEncompassing(lastIndexStartingBefore(startOffset), startOffset, endOffset, indices);
+        }
+        return indices;
+    }
+
+    private void addAncestorsEncompassing(int index, int startOffset, int endOffset, ArrayList<Integer> indices) {
+        while(index != -1) {
+            if(indices.contains(index)) {
+                return; // Already added this term, and therefore also its ancestors.
+            }
+            if(encompasses(index, startOffset, endOffset)) {
+                indices.add(index);
+            }
+            index = parents[index];
+        }
+    }
+
+    private int lastIndexStartingBefore(int offset) {
+        int low = 0;
+        int high = startOffsets.length - 1;
+        int last = -1;
+        while(low <= high) {
+            final int mid = (low + high) >>> 1;
+            if(startOffsets[mid] < offset) {
+                last = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return last;
+    }
+
+    private int length(int index) {
+        return endOffsets[index] - startOffsets[index];
+    }
+
+    private boolean encompasses(int index, int startOffset, int endOffset) {
+        return startOffsets[index] <= startOffset && endOffset <= endOffsets[index];
+    }
+
+
+    @Override public TermAttachmentType<TermRegionIndex> getAttachmentType() {
+        return TYPE;
+    }
+}
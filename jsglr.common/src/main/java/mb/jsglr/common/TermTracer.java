@@ -8,8 +8,6 @@ import org.spoofax.jsglr.client.imploder.IToken;
 import org.spoofax.jsglr.client.imploder.ImploderAttachment;
 import org.spoofax.terms.attachments.OriginAttachment;
 
-import java.util.Stack;
-
 public class TermTracer {
     /**
      * Gets the originating term of given term, or null if it cannot be found.
@@ -48,31 +46,14 @@ public class TermTracer {
 
 
     /**
-     * Gets the smallest term from the {@code ast} that encompasses given {@code region}.
+     * Gets the smallest term from the {@code ast} that encompasses given {@code region}. Uses the {@link
+     * TermRegionIndex region index} of the AST, which is built on first use.
      *
      * @param ast    AST to select a term from.
      * @param region Selection region.
      * @return Smallest term that encompasses given region, or the entire AST if no terms have region information.
      */
     public static IStrategoTerm getSmallestTermEncompassingRegion(IStrategoTerm ast, Region region) {
-        IStrategoTerm minimalTerm = ast;
-        int minimalLength = Integer.MAX_VALUE;
-        final Stack<IStrategoTerm> stack = new Stack<IStrategoTerm>();
-        stack.push(ast);
-        while(!stack.empty()) {
-            final IStrategoTerm term = stack.pop();
-            final @Nullable Region termRegion = getRegion(term);
-            if(termRegion != null) {
-                final int length = termRegion.length();
-                if(termRegion.contains(region) && length < minimalLength) {
-                    minimalTerm = term;
-                    minimalLength = length;
-                }
-            }
-            for(int i = term.getSubtermCount() - 1; i >= 0; --i) {
-                stack.push(term.getSubterm(i));
-            }
-        }
-        return minimalTerm;
+        return TermRegionIndex.get(ast).getSmallestTermEncompassingRegion(region);
     }
 }
@@ -1,8 +1,6 @@
 package mb.jsglr.common;
 
-import mb.common.region.Region;
-import mb.common.token.Token;
-import mb.common.token.TokenImpl;
+import mb.common.token.TokenStream;
 import mb.common.token.TokenType;
 import mb.common.token.TokenTypes;
 import org.spoofax.interpreter.terms.IStrategoTerm;
@@ -10,14 +8,12 @@ import org.spoofax.jsglr.client.imploder.IToken;
 import org.spoofax.jsglr.client.imploder.ITokens;
 import org.spoofax.jsglr.client.imploder.ImploderAttachment;
 
-import java.util.ArrayList;
-
 public class TokenUtil {
-    public static ArrayList<Token<IStrategoTerm>> extract(IStrategoTerm ast) {
+    public static TokenStream<IStrategoTerm> extract(IStrategoTerm ast) {
         final ImploderAttachment rootImploderAttachment = ImploderAttachment.get(ast);
         final ITokens tokens = rootImploderAttachment.getLeftToken().getTokenizer();
         final int tokenCount = tokens.getTokenCount();
-        final ArrayList<Token<IStrategoTerm>> tokenStream = new ArrayList<>(tokenCount);
+        final TokenStream.Builder<IStrategoTerm> tokenStream = new TokenStream.Builder<>(tokenCount);
         int offset = -1;
         for(int i = 0; i < tokenCount; ++i) {
             final IToken jsglrToken = tokens.getTokenAt(i);
@@ -34,17 +30,12 @@ public class TokenUtil {
                 continue;
             }
             offset = jsglrToken.getEndOffset();
-            final Token<IStrategoTerm> token = convertToken(jsglrToken);
-            tokenStream.add(token);
+            final TokenType tokenType = convertTokenKind(jsglrToken.getKind());
+            final IStrategoTerm fragment = (IStrategoTerm) jsglrToken.getAstNode();
+            // Same region as RegionUtil.fromToken, without creating a Region object.
+            tokenStream.add(tokenType, jsglrToken.getStartOffset(), jsglrToken.getEndOffset() + 1, fragment);
         }
-        return tokenStream;
-    }
-
-    private static Token<IStrategoTerm> convertToken(IToken token) {
-        final TokenType tokenType = convertTokenKind(token.getKind());
-        final Region region = RegionUtil.fromToken(token);
-        final IStrategoTerm fragment = (IStrategoTerm) token.getAstNode();
-        return new TokenImpl<>(tokenType, region, fragment);
+        return tokenStream.build();
     }
 
     private static TokenType convertTokenKind(int kind) {
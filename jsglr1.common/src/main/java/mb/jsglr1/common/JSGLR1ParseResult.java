@@ -1,30 +1,31 @@
 package mb.jsglr1.common;
 
 import mb.common.message.Messages;
-import mb.common.token.Token;
+import mb.common.token.TokenStream;
 import mb.common.util.ADT;
+import mb.jsglr.common.LazyTokens;
+import mb.jsglr.common.TermRegionIndex;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Optional;
 
 @ADT
 public abstract class JSGLR1ParseResult implements Serializable {
     public interface Cases<R> {
-        R success(IStrategoTerm ast, ArrayList<? extends Token<IStrategoTerm>> tokens, Messages messages);
+        R success(IStrategoTerm ast, LazyTokens tokens, Messages messages);
 
-        R recovered(IStrategoTerm ast, ArrayList<? extends Token<IStrategoTerm>> tokens, Messages messages);
+        R recovered(IStrategoTerm ast, LazyTokens tokens, Messages messages);
 
         R failed(Messages messages);
     }
 
-    public static JSGLR1ParseResult success(IStrategoTerm ast, ArrayList<? extends Token<IStrategoTerm>> tokens, Messages messages) {
+    public static JSGLR1ParseResult success(IStrategoTerm ast, LazyTokens tokens, Messages messages) {
         return JSGLR1ParseResults.success(ast, tokens, messages);
     }
 
-    public static JSGLR1ParseResult recovered(IStrategoTerm ast, ArrayList<? extends Token<IStrategoTerm>> tokens, Messages messages) {
+    public static JSGLR1ParseResult recovered(IStrategoTerm ast, LazyTokens tokens, Messages messages) {
         return JSGLR1ParseResults.recovered(ast, tokens, messages);
     }
 
@@ -43,10 +44,25 @@ public abstract class JSGLR1ParseResult implements Serializable {
         return JSGLR1ParseResults.getAst(this);
     }
 
-    public Optional<ArrayList<? extends Token<IStrategoTerm>>> getTokens() {
+    /**
+     * Gets the region index of the AST, building it if that has not been done yet.
+     */
+    public Optional<TermRegionIndex> getRegionIndex() {
+        return getAst().map(TermRegionIndex::get);
+    }
+
+    public Optional<LazyTokens> getLazyTokens() {
         return JSGLR1ParseResults.getTokens(this);
     }
 
+    /**
+     * Gets the tokens of the AST, extracting them if that has not been done yet. Use {@link #getAst()} instead if
+     * tokens are not needed, to prevent extracting them.
+     */
+    public Optional<TokenStream<IStrategoTerm>> getTokens() {
+        return getLazyTokens().map(LazyTokens::get);
+    }
+
     public Messages getMessages() {
         return JSGLR1ParseResults.getMessages(this);
     }
@@ -1,5 +1,8 @@
 package mb.jsglr1.common;
 
+import mb.common.util.IOUtil;
+import mb.common.util.SerializationException;
+import mb.common.util.SerializationUtil;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 import org.spoofax.interpreter.terms.ITermFactory;
 import org.spoofax.jsglr.client.InvalidParseTableException;
@@ -8,8 +11,10 @@ import org.spoofax.jsglr.client.imploder.ImploderOriginTermFactory;
 import org.spoofax.terms.TermFactory;
 import org.spoofax.terms.io.binary.TermReader;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 
 public class JSGLR1ParseTable implements Serializable {
@@ -31,7 +36,39 @@ public class JSGLR1ParseTable implements Serializable {
         }
     }
 
+    /**
+     * Loads a parse table that was serialized with {@link #toSerializedStream(OutputStream)}. The stream is read in
+     * bulk, and no parse table term is read or processed, which makes this much faster than {@link
+     * #fromStream(InputStream)}. Serialized parse tables are only compatible with the JSGLR1 version that serialized
+     * them.
+     */
+    public static JSGLR1ParseTable fromSerializedStream(InputStream serializedParseTableStream) throws JSGLR1ParseTableException {
+        try {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            IOUtil.copy(serializedParseTableStream, outputStream);
+            final ParseTable parseTable = SerializationUtil.deserialize(outputStream.toByteArray(), JSGLR1ParseTable.class.getClassLoader());
+            // The term factory and other transient data of parse tables are not serialized, initialize them again.
+            parseTable.initTransientData(new ImploderOriginTermFactory(new TermFactory()));
+            return new JSGLR1ParseTable(parseTable);
+        } catch(IOException | SerializationException | ClassCastException e) {
+            throw new JSGLR1ParseTableException("Loading serialized parse table from stream failed unexpectedly", e);
+        }
+    }
+
     public static JSGLR1ParseTable fromParseTable(ParseTable parseTable) {
         return new JSGLR1ParseTable(parseTable);
     }
+
+
+    /**
+     * Serializes this parse table to given {@code outputStream}, to be loaded with {@link
+     * #fromSerializedStream(InputStream)}. Closes the stream.
+     */
+    public void toSerializedStream(OutputStream outputStream) throws JSGLR1ParseTableException {
+        try {
+            SerializationUtil.serialize(internalParseTable, outputStream);
+        } catch(SerializationException e) {
+            throw new JSGLR1ParseTableException("Serializing parse table to stream failed unexpectedly", e);
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package mb.jsglr1.common;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Reads a parse table and writes it in serialized form, to be loaded with {@link
+ * JSGLR1ParseTable#fromSerializedStream(InputStream)}. Run at build time by generated language projects.
+ *
+ * Usage: {@code JSGLR1ParseTableSerializer <parse table file> <serialized parse table file>}.
+ */
+public class JSGLR1ParseTableSerializer {
+    public static void main(String[] args) throws IOException, JSGLR1ParseTableException {
+        if(args.length != 2) {
+            throw new IllegalArgumentException("Expected 2 arguments: <parse table file> <serialized parse table file>, but got " + args.length + " arguments");
+        }
+        final Path parseTableFile = Paths.get(args[0]);
+        final Path serializedParseTableFile = Paths.get(args[1]);
+        final JSGLR1ParseTable parseTable;
+        try(final InputStream inputStream = new BufferedInputStream(Files.newInputStream(parseTableFile))) {
+            parseTable = JSGLR1ParseTable.fromStream(inputStream);
+        }
+        final Path parent = serializedParseTableFile.toAbsolutePath().getParent();
+        if(parent != null) {
+            Files.createDirectories(parent);
+        }
+        final OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(serializedParseTableFile));
+        parseTable.toSerializedStream(outputStream); // Closes the stream.
+    }
+}
@@ -1,9 +1,8 @@
 package mb.jsglr1.common;
 
 import mb.common.message.Messages;
-import mb.common.token.Token;
+import mb.jsglr.common.LazyTokens;
 import mb.jsglr.common.ResourceKeyAttachment;
-import mb.jsglr.common.TokenUtil;
 import mb.resource.ResourceKey;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spoofax.interpreter.terms.IStrategoTerm;
@@ -19,35 +18,69 @@ import org.spoofax.jsglr.shared.SGLRException;
 import org.spoofax.terms.TermFactory;
 import org.spoofax.terms.attachments.ParentTermFactory;
 
-import java.util.ArrayList;
-
 public class JSGLR1Parser {
+    private final JSGLR1ParseTable parseTable;
+    private final JSGLR1ParserOptions options;
     private final SGLR parser;
 
     public JSGLR1Parser(JSGLR1ParseTable parseTable) {
-        this(parseTable, new ImploderOriginTermFactory(new TermFactory()));
+        this(parseTable, JSGLR1ParserOptions.defaults());
+    }
+
+    public JSGLR1Parser(JSGLR1ParseTable parseTable, JSGLR1ParserOptions options) {
+        this(parseTable, options, new ImploderOriginTermFactory(new TermFactory()));
     }
 
     public JSGLR1Parser(JSGLR1ParseTable parseTable, ITermFactory termFactory) {
+        this(parseTable, JSGLR1ParserOptions.defaults(), termFactory);
+    }
+
+    public JSGLR1Parser(JSGLR1ParseTable parseTable, JSGLR1ParserOptions options, ITermFactory termFactory) {
+        this.parseTable = parseTable;
+        this.options = options;
         final TermTreeFactory treeFactory = new TermTreeFactory(new ParentTermFactory(termFactory));
         final TreeBuilder treeBuilder = new TreeBuilder(treeFactory);
 
         this.parser = new SGLR(treeBuilder, parseTable.internalParseTable);
-        this.parser.setUseStructureRecovery(true);
-        this.parser.setTimeout(5000);
-        this.parser.setDisambiguatorTimeout(5000);
         this.parser.setApplyCompletionProd(false);
         this.parser.setNewCompletionMode(false);
+        applyOptions(options);
+    }
 
-        final Disambiguator disambiguator = parser.getDisambiguator();
-        disambiguator.setHeuristicFilters(false);
+    public JSGLR1ParseTable getParseTable() {
+        return parseTable;
+    }
+
+    public JSGLR1ParserOptions getOptions() {
+        return options;
     }
 
+
     public JSGLR1ParseResult parse(String text, String startSymbol) throws InterruptedException {
         return parse(text, startSymbol, null);
     }
 
     public JSGLR1ParseResult parse(String text, String startSymbol, @Nullable ResourceKey resource) throws InterruptedException {
+        return parse(text, startSymbol, resource, options);
+    }
+
+    /**
+     * Parses given {@code text} with given {@code options} instead of the options of this parser. The options of this
+     * parser are restored afterwards.
+     */
+    public JSGLR1ParseResult parse(String text, String startSymbol, @Nullable ResourceKey resource, JSGLR1ParserOptions options) throws InterruptedException {
+        if(options.equals(this.options)) {
+            return doParse(text, startSymbol, resource);
+        }
+        applyOptions(options);
+        try {
+            return doParse(text, startSymbol, resource);
+        } finally {
+            applyOptions(this.options);
+        }
+    }
+
+    private JSGLR1ParseResult doParse(String text, String startSymbol, @Nullable ResourceKey resource) throws InterruptedException {
         try {
             final SGLRParseResult result = parser.parse(text, null, startSymbol);
             if(result.output == null) {
@@ -60,15 +93,15 @@ public class JSGLR1Parser {
             if(resource != null) {
                 ResourceKeyAttachment.setResourceKey(ast, resource);
             }
-            final ArrayList<Token<IStrategoTerm>> tokenStream = TokenUtil.extract(ast);
+            final LazyTokens tokens = LazyTokens.fromAst(ast);
             final MessagesUtil messagesUtil = new MessagesUtil(true, false, parser.getCollectedErrors());
             messagesUtil.gatherNonFatalErrors(ast);
             final Messages messages = messagesUtil.getMessages();
             final boolean recovered = messages.containsError();
             if(recovered) {
-                return JSGLR1ParseResults.recovered(ast, tokenStream, messages);
+                return JSGLR1ParseResults.recovered(ast, tokens, messages);
             } else {
-                return JSGLR1ParseResults.success(ast, tokenStream, messages);
+                return JSGLR1ParseResults.success(ast, tokens, messages);
             }
         } catch(SGLRException e) {
             final MessagesUtil messagesUtil = new MessagesUtil(true, true, parser.getCollectedErrors());
@@ -77,4 +110,25 @@ public class JSGLR1Parser {
             return JSGLR1ParseResults.failed(messages);
         }
     }
+
+
+    private void applyOptions(JSGLR1ParserOptions options) {
+        parser.setUseStructureRecovery(options.isRecovery());
+        parser.setTimeout(options.getTimeout());
+        parser.setDisambiguatorTimeout(options.getDisambiguatorTimeout());
+        final Disambiguator disambiguator = parser.getDisambiguator();
+        disambiguator.setHeuristicFilters(options.isHeuristicFilters());
+    }
+
+
+    /**
+     * Resets the state of this parser that is retained after parsing, such that it can be reused for a subsequent
+     * parse, for example after returning it to a {@link JSGLR1ParserPool}. Clears the errors collected during recovery,
+     * and restores the recovery, timeout, and disambiguation settings to the options of this parser, in case a parse
+     * with other options did not complete.
+     */
+    public void reset() {
+        parser.getCollectedErrors().clear();
+        applyOptions(options);
+    }
 }
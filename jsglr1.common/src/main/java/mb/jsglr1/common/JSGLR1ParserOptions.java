@@ -0,0 +1,103 @@
+package mb.jsglr1.common;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.Serializable;
+
+/**
+ * Options for {@link JSGLR1Parser}, which can be set per parser and overridden per parse.
+ */
+public class JSGLR1ParserOptions implements Serializable {
+    public static final int defaultTimeout = 5000;
+    public static final int defaultDisambiguatorTimeout = 5000;
+
+    private final boolean recovery;
+    private final int timeout;
+    private final int disambiguatorTimeout;
+    private final boolean heuristicFilters;
+
+
+    /**
+     * @param recovery             Whether to recover from parse errors.
+     * @param timeout              Maximum time to spend on parsing in milliseconds, or 0 for no timeout. Parsing fails
+     *                             when it takes longer.
+     * @param disambiguatorTimeout Maximum time to spend on disambiguation in milliseconds, or 0 for no timeout.
+     * @param heuristicFilters     Whether to apply heuristic disambiguation filters.
+     */
+    public JSGLR1ParserOptions(boolean recovery, int timeout, int disambiguatorTimeout, boolean heuristicFilters) {
+        if(timeout < 0) {
+            throw new IllegalArgumentException("Timeout " + timeout + " must not be negative");
+        }
+        if(disambiguatorTimeout < 0) {
+            throw new IllegalArgumentException("Disambiguator timeout " + disambiguatorTimeout + " must not be negative");
+        }
+        this.recovery = recovery;
+        this.timeout = timeout;
+        this.disambiguatorTimeout = disambiguatorTimeout;
+        this.heuristicFilters = heuristicFilters;
+    }
+
+    /**
+     * Default options: recovery enabled, 5 second parse and disambiguation timeouts, and no heuristic filters.
+     */
+    public static JSGLR1ParserOptions defaults() {
+        return new JSGLR1ParserOptions(true, defaultTimeout, defaultDisambiguatorTimeout, false);
+    }
+
+
+    public boolean isRecovery() {
+        return recovery;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public int getDisambiguatorTimeout() {
+        return disambiguatorTimeout;
+    }
+
+    public boolean isHeuristicFilters() {
+        return heuristicFilters;
+    }
+
+
+    public JSGLR1ParserOptions withRecovery(boolean recovery) {
+        return new JSGLR1ParserOptions(recovery, timeout, disambiguatorTimeout, heuristicFilters);
+    }
+
+    public JSGLR1ParserOptions withTimeout(int timeout) {
+        return new JSGLR1ParserOptions(recovery, timeout, disambiguatorTimeout, heuristicFilters);
+    }
+
+    public JSGLR1ParserOptions withDisambiguatorTimeout(int disambiguatorTimeout) {
+        return new JSGLR1ParserOptions(recovery, timeout, disambiguatorTimeout, heuristicFilters);
+    }
+
+    public JSGLR1ParserOptions withHeuristicFilters(boolean heuristicFilters) {
+        return new JSGLR1ParserOptions(recovery, timeout, disambiguatorTimeout, heuristicFilters);
+    }
+
+
+    @Override public boolean equals(@Nullable Object obj) {
+        if(this == obj) return true;
+        if(obj == null || getClass() != obj.getClass()) return false;
+        final JSGLR1ParserOptions other = (JSGLR1ParserOptions) obj;
+        return recovery == other.recovery &&
+            timeout == other.timeout &&
+            disambiguatorTimeout == other.disambiguatorTimeout &&
+            heuristicFilters == other.heuristicFilters;
+    }
+
+    @Override public int hashCode() {
+        int result = recovery ? 1 : 0;
+        result = 31 * result + timeout;
+        result = 31 * result + disambiguatorTimeout;
+        result = 31 * result + (heuristicFilters ? 1 : 0);
+        return result;
+    }
+
+    @Override public String toString() {
+        return "JSGLR1ParserOptions(recovery=" + recovery + ", timeout=" + timeout + ", disambiguatorTimeout=" + disambiguatorTimeout + ", heuristicFilters=" + heuristicFilters + ")";
+    }
+}
@@ -0,0 +1,112 @@
+package mb.jsglr1.common;
+
+import mb.resource.ResourceKey;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded, thread-safe pool of {@link JSGLR1Parser parsers} for a single {@link JSGLR1ParseTable parse table}.
+ *
+ * A parser is borrowed with {@link #borrow()}, and must be returned with {@link #release(JSGLR1Parser)} after use.
+ * Borrowing never blocks: when no idle parser is available, a new one is created. At most {@code capacity} idle
+ * parsers are retained, further released parsers are discarded. Parsers are created with the {@link JSGLR1ParserOptions
+ * options} of the pool, which can be overridden per parse.
+ */
+public class JSGLR1ParserPool {
+    private final JSGLR1ParseTable parseTable;
+    private final JSGLR1ParserOptions options;
+    private final ArrayBlockingQueue<JSGLR1Parser> idleParsers;
+
+
+    public JSGLR1ParserPool(JSGLR1ParseTable parseTable, JSGLR1ParserOptions options, int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Capacity " + capacity + " must be larger than zero");
+        }
+        this.parseTable = parseTable;
+        this.options = options;
+        this.idleParsers = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public JSGLR1ParserPool(JSGLR1ParseTable parseTable, JSGLR1ParserOptions options) {
+        this(parseTable, options, Runtime.getRuntime().availableProcessors());
+    }
+
+    public JSGLR1ParserPool(JSGLR1ParseTable parseTable, int capacity) {
+        this(parseTable, JSGLR1ParserOptions.defaults(), capacity);
+    }
+
+    public JSGLR1ParserPool(JSGLR1ParseTable parseTable) {
+        this(parseTable, JSGLR1ParserOptions.defaults());
+    }
+
+
+    public JSGLR1ParseTable getParseTable() {
+        return parseTable;
+    }
+
+    public JSGLR1ParserOptions getOptions() {
+        return options;
+    }
+
+
+    /**
+     * Borrows an idle parser from the pool, or creates a new one if the pool is empty.
+     */
+    public JSGLR1Parser borrow() {
+        final @Nullable JSGLR1Parser parser = idleParsers.poll();
+        if(parser != null) {
+            return parser;
+        }
+        return new JSGLR1Parser(parseTable, options);
+    }
+
+    /**
+     * Resets given {@code parser} and returns it to the pool, or discards it if the pool is full.
+     *
+     * @throws IllegalArgumentException When {@code parser} was not created for the parse table and options of this
+     *                                  pool.
+     */
+    public void release(JSGLR1Parser parser) {
+        if(parser.getParseTable() != parseTable) {
+            throw new IllegalArgumentException("Cannot release parser '" + parser + "' into this pool; it was created for a different parse table");
+        }
+        if(!parser.getOptions().equals(options)) {
+            throw new IllegalArgumentException("Cannot release parser '" + parser + "' into this pool; it was created with different options");
+        }
+        parser.reset();
+        idleParsers.offer(parser);
+    }
+
+
+    /**
+     * Parses given {@code text} with a parser borrowed from this pool. The parser is only returned to the pool when
+     * parsing completes normally or is interrupted; parsers that throw an unexpected exception are discarded.
+     */
+    public JSGLR1ParseResult parse(String text, String startSymbol, @Nullable ResourceKey resource) throws InterruptedException {
+        return parse(text, startSymbol, resource, options);
+    }
+
+    /**
+     * Parses given {@code text} with a parser borrowed from this pool, using given {@code options} instead of the
+     * options of this pool for this parse only.
+     *
+     * @see #parse(String, String, ResourceKey)
+     */
+    public JSGLR1ParseResult parse(String text, String startSymbol, @Nullable ResourceKey resource, JSGLR1ParserOptions options) throws InterruptedException {
+        final JSGLR1Parser parser = borrow();
+        final JSGLR1ParseResult result;
+        try {
+            result = parser.parse(text, startSymbol, resource, options);
+        } catch(InterruptedException e) {
+            release(parser);
+            throw e;
+        }
+        release(parser);
+        return result;
+    }
+
+    public JSGLR1ParseResult parse(String text, String startSymbol) throws InterruptedException {
+        return parse(text, startSymbol, null);
+    }
+}
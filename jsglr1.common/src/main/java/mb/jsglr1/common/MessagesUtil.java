@@ -21,6 +21,7 @@ import org.spoofax.jsglr.shared.TokenExpectedException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeMap;
 
 import static org.spoofax.jsglr.client.imploder.AbstractTokenizer.findLeftMostTokenOnSameLine;
 import static org.spoofax.jsglr.client.imploder.AbstractTokenizer.findRightMostTokenOnSameLine;
@@ -34,6 +35,9 @@ class MessagesUtil {
     private final boolean recoveryEnabled;
     private final boolean recoveryFailed;
     private final Set<BadTokenException> parseErrors;
+    // Parse errors bucketed by line number, built on first use, such that errors in a range of lines can be looked up
+    // without scanning all errors. Buckets retain the iteration order of the parse errors.
+    private @Nullable TreeMap<Integer, ArrayList<BadTokenException>> parseErrorsByLine;
 
     private final MessagesBuilder messagesBuilder = new MessagesBuilder();
 
@@ -119,14 +123,25 @@ class MessagesUtil {
         final List<BadTokenException> results = new ArrayList<>();
         final int line = left.getLine();
         final int endLine = right.getLine() + (alsoOutside ? RegionRecovery.NR_OF_LINES_TILL_SUCCESS : 0);
-        for(BadTokenException error : parseErrors) {
-            if(error.getLineNumber() >= line && error.getLineNumber() <= endLine) {
-                results.add(error);
-            }
+        if(endLine < line) {
+            return results;
+        }
+        for(ArrayList<BadTokenException> errors : getParseErrorsByLine().subMap(line, true, endLine, true).values()) {
+            results.addAll(errors);
         }
         return results;
     }
 
+    private TreeMap<Integer, ArrayList<BadTokenException>> getParseErrorsByLine() {
+        if(parseErrorsByLine == null) {
+            parseErrorsByLine = new TreeMap<>();
+            for(BadTokenException error : parseErrors) {
+                parseErrorsByLine.computeIfAbsent(error.getLineNumber(), l -> new ArrayList<>()).add(error);
+            }
+        }
+        return parseErrorsByLine;
+    }
+
 
     /*
      * Fatal errors
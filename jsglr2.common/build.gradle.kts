@@ -4,6 +4,14 @@ plugins {
 
 dependencies {
   api(platform(project(":spoofax.depconstraints")))
+  annotationProcessor(platform(project(":spoofax.depconstraints")))
 
+  api(project(":common"))
+  api(project(":jsglr.common"))
+  api("org.metaborg:org.spoofax.jsglr2")
+
+  compileOnly("org.derive4j:derive4j-annotation")
   compileOnly("org.checkerframework:checker-qual-android")
+
+  annotationProcessor("org.derive4j:derive4j")
 }
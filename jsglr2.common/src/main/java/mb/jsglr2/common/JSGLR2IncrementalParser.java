@@ -0,0 +1,111 @@
+package mb.jsglr2.common;
+
+import mb.resource.ResourceKey;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Incremental parser that reuses unchanged subtrees of the previous parse of a resource.
+ *
+ * JSGLR2 caches the previous parse of each file inside the parser instance, and offers no way to remove a single file
+ * from that cache. Therefore, this parser keeps a separate incremental parser for each resource, which is dropped when
+ * the resource is {@link #forget(ResourceKey) forgotten}. At most {@code capacity} resources are retained; the least
+ * recently parsed resource is forgotten when another resource is parsed.
+ *
+ * This parser is thread-safe. Parses of the same resource are serialized, parses of different resources are not.
+ */
+public class JSGLR2IncrementalParser {
+    private static class ResourceParser {
+        final JSGLR2Parser parser;
+        boolean hasPreviousParse = false;
+
+        ResourceParser(JSGLR2ParseTable parseTable) {
+            this.parser = new JSGLR2Parser(parseTable, JSGLR2ParserVariant.Incremental);
+        }
+    }
+
+
+    private final JSGLR2ParseTable parseTable;
+    private final LinkedHashMap<ResourceKey, ResourceParser> resourceParsers;
+
+
+    public JSGLR2IncrementalParser(JSGLR2ParseTable parseTable, int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Capacity " + capacity + " must be larger than zero");
+        }
+        this.parseTable = parseTable;
+        // Access ordered, such that the least recently parsed resource is removed when the capacity is exceeded.
+        this.resourceParsers = new LinkedHashMap<ResourceKey, ResourceParser>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<ResourceKey, ResourceParser> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public JSGLR2IncrementalParser(JSGLR2ParseTable parseTable) {
+        this(parseTable, 64);
+    }
+
+
+    /**
+     * Parses given {@code text}. When {@code resource} is not null, unchanged subtrees of the previous parse of {@code
+     * resource} are reused, and this parse is retained for the next parse of {@code resource}.
+     */
+    public JSGLR2ParseResult parse(String text, String startSymbol, @Nullable ResourceKey resource) throws InterruptedException {
+        if(resource == null) {
+            // Nothing to reuse or retain: parse with a parser that is not kept.
+            return new ResourceParser(parseTable).parser.parse(text, startSymbol, null);
+        }
+        final ResourceParser resourceParser;
+        synchronized(resourceParsers) {
+            resourceParser = resourceParsers.computeIfAbsent(resource, r -> new ResourceParser(parseTable));
+        }
+        synchronized(resourceParser) {
+            final JSGLR2ParseResult result = resourceParser.parser.parse(text, startSymbol, resource);
+            // JSGLR2 only retains successful parses.
+            resourceParser.hasPreviousParse = result.hasSucceeded();
+            return result;
+        }
+    }
+
+    public JSGLR2ParseResult parse(String text, String startSymbol) throws InterruptedException {
+        return parse(text, startSymbol, null);
+    }
+
+
+    /**
+     * Gets whether a previous parse of {@code resource} is retained, which the next parse of {@code resource} reuses.
+     */
+    public boolean hasPreviousParse(ResourceKey resource) {
+        final @Nullable ResourceParser resourceParser;
+        synchronized(resourceParsers) {
+            resourceParser = resourceParsers.get(resource);
+        }
+        if(resourceParser == null) {
+            return false;
+        }
+        synchronized(resourceParser) {
+            return resourceParser.hasPreviousParse;
+        }
+    }
+
+    /**
+     * Forgets the previous parse of {@code resource}, for example when it is no longer being edited, or was removed.
+     */
+    public void forget(ResourceKey resource) {
+        synchronized(resourceParsers) {
+            resourceParsers.remove(resource);
+        }
+    }
+
+    /**
+     * Forgets the previous parses of all resources.
+     */
+    public void clear() {
+        synchronized(resourceParsers) {
+            resourceParsers.clear();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package mb.jsglr2.common;
+
+import mb.common.message.Messages;
+import mb.common.token.TokenStream;
+import mb.common.util.ADT;
+import mb.jsglr.common.LazyTokens;
+import mb.jsglr.common.TermRegionIndex;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+@ADT
+public abstract class JSGLR2ParseResult implements Serializable {
+    public interface Cases<R> {
+        R success(IStrategoTerm ast, LazyTokens tokens, Messages messages);
+
+        R recovered(IStrategoTerm ast, LazyTokens tokens, Messages messages);
+
+        R failed(Messages messages);
+    }
+
+    public static JSGLR2ParseResult success(IStrategoTerm ast, LazyTokens tokens, Messages messages) {
+        return JSGLR2ParseResults.success(ast, tokens, messages);
+    }
+
+    public static JSGLR2ParseResult recovered(IStrategoTerm ast, LazyTokens tokens, Messages messages) {
+        return JSGLR2ParseResults.recovered(ast, tokens, messages);
+    }
+
+    public static JSGLR2ParseResult failed(Messages messages) {
+        return JSGLR2ParseResults.failed(messages);
+    }
+
+
+    public abstract <R> R match(Cases<R> cases);
+
+    public JSGLR2ParseResults.CaseOfMatchers.TotalMatcher_Success caseOf() {
+        return JSGLR2ParseResults.caseOf(this);
+    }
+
+    public Optional<IStrategoTerm> getAst() {
+        return JSGLR2ParseResults.getAst(this);
+    }
+
+    /**
+     * Gets the region index of the AST, building it if that has not been done yet.
+     */
+    public Optional<TermRegionIndex> getRegionIndex() {
+        return getAst().map(TermRegionIndex::get);
+    }
+
+    public Optional<LazyTokens> getLazyTokens() {
+        return JSGLR2ParseResults.getTokens(this);
+    }
+
+    /**
+     * Gets the tokens of the AST, extracting them if that has not been done yet. Use {@link #getAst()} instead if
+     * tokens are not needed, to prevent extracting them.
+     */
+    public Optional<TokenStream<IStrategoTerm>> getTokens() {
+        return getLazyTokens().map(LazyTokens::get);
+    }
+
+    public Messages getMessages() {
+        return JSGLR2ParseResults.getMessages(this);
+    }
+
+    public boolean hasSucceeded() {
+        return caseOf().success_(true).otherwise_(false);
+    }
+
+    public boolean hasRecovered() {
+        return caseOf().recovered_(true).otherwise_(false);
+    }
+
+    public boolean hasFailed() {
+        return caseOf().failed_(true).otherwise_(false);
+    }
+
+
+    @Override public abstract int hashCode();
+
+    @Override public abstract boolean equals(@Nullable Object obj);
+
+    @Override public abstract String toString();
+}
@@ -0,0 +1,37 @@
+package mb.jsglr2.common;
+
+import org.metaborg.parsetable.IParseTable;
+import org.metaborg.parsetable.ParseTableReadException;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.interpreter.terms.ITermFactory;
+import org.spoofax.jsglr2.parsetable.ParseTableReader;
+import org.spoofax.terms.TermFactory;
+import org.spoofax.terms.io.binary.TermReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+
+public class JSGLR2ParseTable implements Serializable {
+    final IParseTable internalParseTable;
+
+    private JSGLR2ParseTable(IParseTable parseTable) {
+        this.internalParseTable = parseTable;
+    }
+
+    public static JSGLR2ParseTable fromStream(InputStream parseTableStream) throws JSGLR2ParseTableException {
+        final ITermFactory termFactory = new TermFactory();
+        final TermReader reader = new TermReader(termFactory);
+        try {
+            final IStrategoTerm parseTableTerm = reader.parseFromStream(parseTableStream);
+            final IParseTable parseTable = new ParseTableReader().read(parseTableTerm);
+            return new JSGLR2ParseTable(parseTable);
+        } catch(IOException | ParseTableReadException e) {
+            throw new JSGLR2ParseTableException("Loading parse table from stream failed unexpectedly", e);
+        }
+    }
+
+    public static JSGLR2ParseTable fromParseTable(IParseTable parseTable) {
+        return new JSGLR2ParseTable(parseTable);
+    }
+}
@@ -0,0 +1,23 @@
+package mb.jsglr2.common;
+
+public class JSGLR2ParseTableException extends Exception {
+    public JSGLR2ParseTableException() {
+
+    }
+
+    public JSGLR2ParseTableException(String message) {
+        super(message);
+    }
+
+    public JSGLR2ParseTableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public JSGLR2ParseTableException(Throwable cause) {
+        super(cause);
+    }
+
+    public JSGLR2ParseTableException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -0,0 +1,81 @@
+package mb.jsglr2.common;
+
+import mb.common.message.Message;
+import mb.common.message.Messages;
+import mb.common.message.Severity;
+import mb.common.region.Region;
+import mb.jsglr.common.LazyTokens;
+import mb.jsglr.common.ResourceKeyAttachment;
+import mb.resource.ResourceKey;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.parser.ParseException;
+import org.spoofax.jsglr2.parser.Position;
+
+public class JSGLR2Parser {
+    private final JSGLR2ParseTable parseTable;
+    private final JSGLR2ParserVariant variant;
+    private final JSGLR2<IStrategoTerm> parser;
+
+    public JSGLR2Parser(JSGLR2ParseTable parseTable, JSGLR2ParserVariant variant) {
+        this.parseTable = parseTable;
+        this.variant = variant;
+        this.parser = variant.create(parseTable);
+    }
+
+    public JSGLR2Parser(JSGLR2ParseTable parseTable) {
+        this(parseTable, JSGLR2ParserVariant.Optimized);
+    }
+
+
+    public JSGLR2ParseTable getParseTable() {
+        return parseTable;
+    }
+
+    public JSGLR2ParserVariant getVariant() {
+        return variant;
+    }
+
+
+    public JSGLR2ParseResult parse(String text, String startSymbol) throws InterruptedException {
+        return parse(text, startSymbol, null);
+    }
+
+    /**
+     * Parses given {@code text}. When this parser is {@link JSGLR2ParserVariant#Incremental incremental} and
+     * {@code resource} is not null, unchanged subtrees of the previous parse of {@code resource} are reused. The
+     * previous parse of every resource is retained for as long as this parser is; use {@link JSGLR2IncrementalParser} to
+     * release them.
+     */
+    public JSGLR2ParseResult parse(String text, String startSymbol, @Nullable ResourceKey resource) throws InterruptedException {
+        if(Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        // JSGLR2 caches the previous parse per file name for incremental parsing; an empty file name disables caching.
+        final String fileName = resource != null ? resource.toString() : "";
+        try {
+            final IStrategoTerm ast = parser.parse(text, fileName, startSymbol);
+            if(resource != null) {
+                ResourceKeyAttachment.setResourceKey(ast, resource);
+            }
+            final LazyTokens tokens = LazyTokens.fromAst(ast);
+            return JSGLR2ParseResults.success(ast, tokens, Messages.of());
+        } catch(ParseException e) {
+            final String prefix = resource != null ? "Parsing '" + resource + "' failed: " : "Parsing failed: ";
+            final Message message = new Message(prefix + e.getMessage(), e, Severity.Error, getRegion(e, text));
+            return JSGLR2ParseResults.failed(Messages.of(message));
+        }
+    }
+
+
+    private static @Nullable Region getRegion(ParseException e, String text) {
+        final @Nullable Position position = e.position;
+        if(position == null || position.offset < 0 || position.offset > text.length()) {
+            return null;
+        }
+        // Mark the character at which parsing failed, or an empty region when parsing failed at the end of the text.
+        final int length = position.offset < text.length() ? 1 : 0;
+        return Region.fromOffsetLength(position.offset, length);
+    }
+}
@@ -0,0 +1,101 @@
+package mb.jsglr2.common;
+
+import mb.resource.ResourceKey;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded, thread-safe pool of non-incremental {@link JSGLR2Parser parsers} for a single {@link JSGLR2ParseTable parse
+ * table}, such that parses are not serialized on a single parser, which is not thread-safe.
+ *
+ * A parser is borrowed with {@link #borrow()}, and must be returned with {@link #release(JSGLR2Parser)} after use.
+ * Borrowing never blocks: when no idle parser is available, a new one is created. At most {@code capacity} idle
+ * parsers are retained, further released parsers are discarded. Incremental parsers retain previous parses per
+ * resource, and must not be shared between resources in a pool; use {@link JSGLR2IncrementalParser} instead.
+ */
+public class JSGLR2ParserPool {
+    private final JSGLR2ParseTable parseTable;
+    private final JSGLR2ParserVariant variant;
+    private final ArrayBlockingQueue<JSGLR2Parser> idleParsers;
+
+
+    public JSGLR2ParserPool(JSGLR2ParseTable parseTable, JSGLR2ParserVariant variant, int capacity) {
+        if(variant.isIncremental()) {
+            throw new IllegalArgumentException("Cannot pool parsers of incremental variant '" + variant + "'; use JSGLR2IncrementalParser instead");
+        }
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Capacity " + capacity + " must be larger than zero");
+        }
+        this.parseTable = parseTable;
+        this.variant = variant;
+        this.idleParsers = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public JSGLR2ParserPool(JSGLR2ParseTable parseTable, JSGLR2ParserVariant variant) {
+        this(parseTable, variant, Runtime.getRuntime().availableProcessors());
+    }
+
+    public JSGLR2ParserPool(JSGLR2ParseTable parseTable) {
+        this(parseTable, JSGLR2ParserVariant.Optimized);
+    }
+
+
+    public JSGLR2ParseTable getParseTable() {
+        return parseTable;
+    }
+
+    public JSGLR2ParserVariant getVariant() {
+        return variant;
+    }
+
+
+    /**
+     * Borrows an idle parser from the pool, or creates a new one if the pool is empty.
+     */
+    public JSGLR2Parser borrow() {
+        final @Nullable JSGLR2Parser parser = idleParsers.poll();
+        if(parser != null) {
+            return parser;
+        }
+        return new JSGLR2Parser(parseTable, variant);
+    }
+
+    /**
+     * Returns given {@code parser} to the pool, or discards it if the pool is full.
+     *
+     * @throws IllegalArgumentException When {@code parser} was not created for the parse table and variant of this
+     *                                  pool.
+     */
+    public void release(JSGLR2Parser parser) {
+        if(parser.getParseTable() != parseTable) {
+            throw new IllegalArgumentException("Cannot release parser '" + parser + "' into this pool; it was created for a different parse table");
+        }
+        if(parser.getVariant() != variant) {
+            throw new IllegalArgumentException("Cannot release parser '" + parser + "' into this pool; it was created for a different variant");
+        }
+        idleParsers.offer(parser);
+    }
+
+
+    /**
+     * Parses given {@code text} with a parser borrowed from this pool. The parser is only returned to the pool when
+     * parsing completes normally or is interrupted; parsers that throw an unexpected exception are discarded.
+     */
+    public JSGLR2ParseResult parse(String text, String startSymbol, @Nullable ResourceKey resource) throws InterruptedException {
+        final JSGLR2Parser parser = borrow();
+        final JSGLR2ParseResult result;
+        try {
+            result = parser.parse(text, startSymbol, resource);
+        } catch(InterruptedException e) {
+            release(parser);
+            throw e;
+        }
+        release(parser);
+        return result;
+    }
+
+    public JSGLR2ParseResult parse(String text, String startSymbol) throws InterruptedException {
+        return parse(text, startSymbol, null);
+    }
+}
@@ -0,0 +1,30 @@
+package mb.jsglr2.common;
+
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variant;
+
+public enum JSGLR2ParserVariant {
+    /**
+     * Optimized (standard) JSGLR2 parser, which parses every input from scratch.
+     */
+    Optimized,
+    /**
+     * Incremental JSGLR2 parser, which reuses unchanged subtrees of the previous parse of the same resource.
+     */
+    Incremental;
+
+    public boolean isIncremental() {
+        return this == Incremental;
+    }
+
+    JSGLR2<IStrategoTerm> create(JSGLR2ParseTable parseTable) {
+        switch(this) {
+            case Incremental:
+                return JSGLR2Variant.Preset.incremental.getJSGLR2(parseTable.internalParseTable);
+            case Optimized:
+            default:
+                return JSGLR2Variant.Preset.standard.getJSGLR2(parseTable.internalParseTable);
+        }
+    }
+}
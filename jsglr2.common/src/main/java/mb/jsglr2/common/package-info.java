@@ -0,0 +1,5 @@
+@DefaultQualifier(NonNull.class)
+package mb.jsglr2.common;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
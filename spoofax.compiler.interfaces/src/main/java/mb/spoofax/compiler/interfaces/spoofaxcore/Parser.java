@@ -1,13 +1,24 @@
 package mb.spoofax.compiler.interfaces.spoofaxcore;
 
-import mb.jsglr1.common.JSGLR1ParseResult;
 import mb.resource.ResourceKey;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public interface Parser {
-    default JSGLR1ParseResult parse(String text, String startSymbol) throws InterruptedException {
+/**
+ * Parser interface implemented by generated parsers.
+ *
+ * @param <R> Type of parse results, which depends on the parser backend: {@code JSGLR1ParseResult} or
+ *            {@code JSGLR2ParseResult}.
+ */
+public interface Parser<R> {
+    default R parse(String text, String startSymbol) throws InterruptedException {
         return parse(text, startSymbol, null);
     }
 
-    JSGLR1ParseResult parse(String text, String startSymbol, @Nullable ResourceKey resource) throws InterruptedException;
+    R parse(String text, String startSymbol, @Nullable ResourceKey resource) throws InterruptedException;
+
+    /**
+     * Forgets state kept for incrementally parsing the resource for {@code resource}, for example when it is no longer
+     * being edited, or was removed. Does nothing by default.
+     */
+    default void forget(ResourceKey resource) {}
 }
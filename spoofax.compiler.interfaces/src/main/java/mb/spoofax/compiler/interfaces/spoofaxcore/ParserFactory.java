@@ -1,5 +1,5 @@
 package mb.spoofax.compiler.interfaces.spoofaxcore;
 
 public interface ParserFactory {
-    Parser create();
+    Parser<?> create();
 }
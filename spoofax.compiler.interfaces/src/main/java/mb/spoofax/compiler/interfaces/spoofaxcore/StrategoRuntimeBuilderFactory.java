@@ -1,7 +1,17 @@
 package mb.spoofax.compiler.interfaces.spoofaxcore;
 
 import mb.stratego.common.StrategoRuntimeBuilder;
+import mb.stratego.common.StrategoRuntimePool;
 
 public interface StrategoRuntimeBuilderFactory {
     StrategoRuntimeBuilder create();
+
+    /**
+     * Creates a pool of Stratego runtimes, built from a prototype runtime that is built by a builder from {@link
+     * #create()}.
+     */
+    default StrategoRuntimePool createPool() {
+        final StrategoRuntimeBuilder builder = create();
+        return new StrategoRuntimePool(builder, builder.build());
+    }
 }
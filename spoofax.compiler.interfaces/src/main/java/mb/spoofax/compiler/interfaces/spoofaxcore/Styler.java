@@ -1,9 +1,16 @@
 package mb.spoofax.compiler.interfaces.spoofaxcore;
 
+import mb.common.region.Region;
 import mb.common.style.Styling;
 import mb.common.token.Token;
+import mb.common.token.TokenStream;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 
 public interface Styler {
     Styling style(Iterable<? extends Token<IStrategoTerm>> tokens);
+
+    /**
+     * Styles only the tokens that overlap {@code region}.
+     */
+    Styling style(TokenStream<IStrategoTerm> tokens, Region region);
 }
@@ -129,7 +129,7 @@ public class AdapterProject {
         } else {
             allTaskDefs.add(TypeInfo.of("mb.spoofax.core.language.taskdef", "NullStyler"));
         }
-        input.constraintAnalyzer().ifPresent((i) -> allTaskDefs.add(i.analyzeTaskDef()));
+        input.constraintAnalyzer().ifPresent((i) -> i.taskDefs().forEach(allTaskDefs::add));
         allTaskDefs.add(input.checkTaskDef());
 
         // Class files
@@ -165,6 +165,11 @@ public class AdapterProject {
             final ArrayList<NamedTypeInfo> injected = new ArrayList<>();
             map.put("injected", injected);
 
+            // Create injection for the parser, to release its state for resources that are no longer needed.
+            final NamedTypeInfo parserInjection = uniqueNamer.makeUnique(input.parser().parser());
+            map.put("parserInjection", parserInjection);
+            injected.add(parserInjection);
+
             // Create injections for tasks required in the language instance.
             final NamedTypeInfo parseInjection = uniqueNamer.makeUnique(input.parser().parseTaskDef());
             map.put("parseInjection", parseInjection);
@@ -182,7 +187,13 @@ public class AdapterProject {
                 styleInjection = uniqueNamer.makeUnique(TypeInfo.of("mb.spoofax.core.language.taskdef", "NullStyler"));
             }
             map.put("styleInjection", styleInjection);
+            map.put("hasStyler", input.styler().isPresent());
             injected.add(styleInjection);
+            final Optional<NamedTypeInfo> contextManagerInjection = input.constraintAnalyzer()
+                .filter(ConstraintAnalyzer.Input::multiFile)
+                .map((i) -> uniqueNamer.makeUnique(TypeInfo.of("mb.constraint.common", "ConstraintAnalyzerContextManager")));
+            map.put("contextManagerInjection", contextManagerInjection);
+            contextManagerInjection.ifPresent(injected::add);
 
             // Create injections for all command definitions. TODO: only inject needed command definitions?
             injected.addAll(input.commandDefs().stream().map(CommandDefRepr::type).map(uniqueNamer::makeUnique).collect(Collectors.toList()));
@@ -220,6 +231,10 @@ public class AdapterProject {
 
         Optional<ConstraintAnalyzer.Input> constraintAnalyzer();
 
+        default boolean multiFileAnalysis() {
+            return constraintAnalyzer().map(ConstraintAnalyzer.Input::multiFile).orElse(false);
+        }
+
 
         /// Configuration
 
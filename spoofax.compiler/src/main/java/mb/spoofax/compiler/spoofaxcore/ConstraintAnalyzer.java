@@ -20,11 +20,15 @@ public class ConstraintAnalyzer {
     private final TemplateWriter constraintAnalyzerTemplate;
     private final TemplateWriter factoryTemplate;
     private final TemplateWriter analyzeTaskDefTemplate;
+    private final TemplateWriter analyzeProjectTaskDefTemplate;
+    private final TemplateWriter analyzeProjectFileTaskDefTemplate;
 
     public ConstraintAnalyzer(TemplateCompiler templateCompiler) {
         this.constraintAnalyzerTemplate = templateCompiler.getOrCompileToWriter("constraint_analyzer/ConstraintAnalyzer.java.mustache");
         this.factoryTemplate = templateCompiler.getOrCompileToWriter("constraint_analyzer/ConstraintAnalyzerFactory.java.mustache");
         this.analyzeTaskDefTemplate = templateCompiler.getOrCompileToWriter("constraint_analyzer/AnalyzeTaskDef.java.mustache");
+        this.analyzeProjectTaskDefTemplate = templateCompiler.getOrCompileToWriter("constraint_analyzer/AnalyzeProjectTaskDef.java.mustache");
+        this.analyzeProjectFileTaskDefTemplate = templateCompiler.getOrCompileToWriter("constraint_analyzer/AnalyzeProjectFileTaskDef.java.mustache");
     }
 
     // Language project
@@ -57,6 +61,12 @@ public class ConstraintAnalyzer {
         outputBuilder.addProvidedResources(
             analyzeTaskDefTemplate.write(input, input.genAnalyzeTaskDef().file(classesGenDirectory))
         );
+        if(input.multiFile()) {
+            outputBuilder.addProvidedResources(
+                analyzeProjectTaskDefTemplate.write(input, input.genAnalyzeProjectTaskDef().file(classesGenDirectory)),
+                analyzeProjectFileTaskDefTemplate.write(input, input.genAnalyzeProjectFileTaskDef().file(classesGenDirectory))
+            );
+        }
         return outputBuilder.build();
     }
 
@@ -164,6 +174,45 @@ public class ConstraintAnalyzer {
             return genAnalyzeTaskDef();
         }
 
+        // Analyze project (multi-file only)
+
+        @Value.Default default TypeInfo genAnalyzeProjectTaskDef() {
+            return TypeInfo.of(shared().adapterProjectTaskPackage(), shared().defaultClassPrefix() + "AnalyzeProject");
+        }
+
+        Optional<TypeInfo> manualAnalyzeProjectTaskDef();
+
+        default TypeInfo analyzeProjectTaskDef() {
+            if(classKind().isManual() && manualAnalyzeProjectTaskDef().isPresent()) {
+                return manualAnalyzeProjectTaskDef().get();
+            }
+            return genAnalyzeProjectTaskDef();
+        }
+
+        // Analyze project file: projection of the project analysis result onto a single file (multi-file only)
+
+        @Value.Default default TypeInfo genAnalyzeProjectFileTaskDef() {
+            return TypeInfo.of(shared().adapterProjectTaskPackage(), shared().defaultClassPrefix() + "AnalyzeProjectFile");
+        }
+
+        Optional<TypeInfo> manualAnalyzeProjectFileTaskDef();
+
+        default TypeInfo analyzeProjectFileTaskDef() {
+            if(classKind().isManual() && manualAnalyzeProjectFileTaskDef().isPresent()) {
+                return manualAnalyzeProjectFileTaskDef().get();
+            }
+            return genAnalyzeProjectFileTaskDef();
+        }
+
+        // List of all task definitions for adapter projects
+
+        default ListView<TypeInfo> taskDefs() {
+            if(multiFile()) {
+                return ListView.of(analyzeTaskDef(), analyzeProjectTaskDef(), analyzeProjectFileTaskDef());
+            }
+            return ListView.of(analyzeTaskDef());
+        }
+
 
         @Value.Check default void check() {
             final ClassKind kind = classKind();
@@ -178,6 +227,13 @@ public class ConstraintAnalyzer {
             if(!manualAnalyzeTaskDef().isPresent()) {
                 throw new IllegalArgumentException("Kind '" + kind + "' indicates that a manual class will be used, but 'manualAnalyzeTaskDef' has not been set");
             }
+            if(!multiFile()) return;
+            if(!manualAnalyzeProjectTaskDef().isPresent()) {
+                throw new IllegalArgumentException("Kind '" + kind + "' indicates that a manual class will be used, but 'manualAnalyzeProjectTaskDef' has not been set");
+            }
+            if(!manualAnalyzeProjectFileTaskDef().isPresent()) {
+                throw new IllegalArgumentException("Kind '" + kind + "' indicates that a manual class will be used, but 'manualAnalyzeProjectFileTaskDef' has not been set");
+            }
         }
     }
 
@@ -35,7 +35,15 @@ public class Parser {
     // Language project
 
     public ListView<GradleConfiguredDependency> getLanguageProjectDependencies(Input input) {
+        if(input.variant().isJSGLR2()) {
+            return ListView.of(
+                GradleConfiguredDependency.api(input.shared().logApiDep()),
+                GradleConfiguredDependency.api(input.shared().jsglrCommonDep()),
+                GradleConfiguredDependency.api(input.shared().jsglr2CommonDep())
+            );
+        }
         return ListView.of(
+            GradleConfiguredDependency.api(input.shared().logApiDep()),
             GradleConfiguredDependency.api(input.shared().jsglrCommonDep()),
             GradleConfiguredDependency.api(input.shared().jsglr1CommonDep())
         );
@@ -88,6 +96,34 @@ public class Parser {
 
         String startSymbol();
 
+        @Value.Default default Variant variant() {
+            return Variant.JSGLR1;
+        }
+
+        default boolean jsglr2() {
+            return variant().isJSGLR2();
+        }
+
+        default boolean jsglr2Incremental() {
+            return variant().isJSGLR2Incremental();
+        }
+
+        default String jsglr2Variant() {
+            return variant().isJSGLR2Incremental() ? "Incremental" : "Optimized";
+        }
+
+        default TypeInfo parseTableType() {
+            return variant().isJSGLR2() ? TypeInfo.of("mb.jsglr2.common", "JSGLR2ParseTable") : TypeInfo.of("mb.jsglr1.common", "JSGLR1ParseTable");
+        }
+
+        default TypeInfo parseTableExceptionType() {
+            return variant().isJSGLR2() ? TypeInfo.of("mb.jsglr2.common", "JSGLR2ParseTableException") : TypeInfo.of("mb.jsglr1.common", "JSGLR1ParseTableException");
+        }
+
+        default TypeInfo parseResultType() {
+            return variant().isJSGLR2() ? TypeInfo.of("mb.jsglr2.common", "JSGLR2ParseResult") : TypeInfo.of("mb.jsglr1.common", "JSGLR1ParseResult");
+        }
+
 
         /// Parse table source file (to copy from), and destination file
 
@@ -99,6 +135,43 @@ public class Parser {
             return shared().languageProjectPackagePath() + "/" + tableSourceRelPath();
         }
 
+        /**
+         * Whether the parse table is serialized when the language project is built, so that it can be loaded in bulk
+         * without reading and processing the parse table term. Only supported for JSGLR1.
+         */
+        @Value.Default default boolean serializeTable() {
+            return !variant().isJSGLR2();
+        }
+
+        default String serializedTableTargetRelPath() {
+            return tableTargetRelPath() + ".bin";
+        }
+
+
+        /// JSGLR1 parser options, which can be overridden per parse with the generated parser
+
+        @Value.Default default boolean recovery() {
+            return true;
+        }
+
+        /**
+         * Maximum time to spend on parsing in milliseconds, or 0 for no timeout.
+         */
+        @Value.Default default int timeout() {
+            return 5000;
+        }
+
+        /**
+         * Maximum time to spend on disambiguation in milliseconds, or 0 for no timeout.
+         */
+        @Value.Default default int disambiguatorTimeout() {
+            return 5000;
+        }
+
+        @Value.Default default boolean heuristicFilters() {
+            return false;
+        }
+
 
         /// Kinds of classes (generated/extended/manual)
 
@@ -201,6 +274,15 @@ public class Parser {
 
 
         @Value.Check default void check() {
+            if(serializeTable() && variant().isJSGLR2()) {
+                throw new IllegalArgumentException("Variant '" + variant() + "' does not support serializing the parse table, but 'serializeTable' has been set");
+            }
+            if(timeout() < 0) {
+                throw new IllegalArgumentException("Timeout '" + timeout() + "' must not be negative");
+            }
+            if(disambiguatorTimeout() < 0) {
+                throw new IllegalArgumentException("Disambiguator timeout '" + disambiguatorTimeout() + "' must not be negative");
+            }
             final ClassKind kind = classKind();
             final boolean manual = kind.isManual();
             if(!manual) return;
@@ -219,6 +301,29 @@ public class Parser {
         }
     }
 
+    public enum Variant {
+        /**
+         * JSGLR1 parser, with parsers pooled per parse table.
+         */
+        JSGLR1,
+        /**
+         * Optimized JSGLR2 parser.
+         */
+        JSGLR2,
+        /**
+         * Incremental JSGLR2 parser, which reuses unchanged subtrees of the previous parse of the same resource.
+         */
+        JSGLR2Incremental;
+
+        public boolean isJSGLR2() {
+            return this != JSGLR1;
+        }
+
+        public boolean isJSGLR2Incremental() {
+            return this == JSGLR2Incremental;
+        }
+    }
+
     @Value.Immutable
     public interface Output {
         class Builder extends ParserData.Output.Builder {}
@@ -94,6 +94,12 @@ public class StrategoRuntime {
 
         boolean addStatixPrimitives();
 
+        /**
+         * Maximum number of idle Stratego runtimes retained by the runtime pool of the language. Defaults to the number
+         * of available processors when absent.
+         */
+        Optional<Integer> poolCapacity();
+
 
         /// Whether to copy certain files from the Spoofax 2.x project.
 
@@ -149,6 +155,9 @@ public class StrategoRuntime {
 
 
         @Value.Check default void check() {
+            if(poolCapacity().isPresent() && poolCapacity().get() <= 0) {
+                throw new IllegalArgumentException("Pool capacity " + poolCapacity().get() + " must be larger than zero");
+            }
             final ClassKind kind = classKind();
             final boolean manual = kind.isManual();
             if(!manual) return;
@@ -89,6 +89,18 @@ public class Styler {
             return shared().languageProjectPackagePath() + "/" + packedESVSourceRelPath();
         }
 
+        /**
+         * Whether the styling rules are serialized when the language project is built, so that they can be loaded
+         * without reading and traversing the packed ESV term.
+         */
+        @Value.Default default boolean serializeRules() {
+            return true;
+        }
+
+        default String serializedRulesTargetRelPath() {
+            return packedESVTargetRelPath() + ".bin";
+        }
+
 
         /// Kinds of classes (generated/extended/manual)
 
@@ -22,6 +22,7 @@ class AdapterProjectTest extends TestBase {
             s.assertPublicJavaInterface(input.genComponent(), "TigerComponent");
             s.assertPublicJavaClass(input.genModule(), "TigerModule");
             s.assertPublicJavaClass(input.genInstance(), "TigerInstance");
+            s.asserts(input.genInstance(), (a) -> a.assertContains("tigerParser.forget(resourceKey)"));
             s.assertPublicJavaClass(input.genCheckTaskDef(), "TigerCheck");
         });
 
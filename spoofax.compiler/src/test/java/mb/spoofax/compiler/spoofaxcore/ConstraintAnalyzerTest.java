@@ -22,4 +22,17 @@ class ConstraintAnalyzerTest extends TestBase {
             s.assertPublicJavaClass(input.analyzeTaskDef(), "TigerAnalyze");
         });
     }
+
+    @Test void testMultiFile() throws IOException {
+        final FSPath baseDirectory = new FSPath(fileSystem.getPath("repo"));
+        final Shared shared = TigerInputs.shared(baseDirectory);
+        final ConstraintAnalyzer.Input input = TigerInputs.constraintAnalyzerBuilder(shared).multiFile(true).build();
+
+        constraintAnalyzerCompiler.compileAdapterProject(input);
+        fileAssertions.scopedExists(input.adapterClassesGenDirectory(), (s) -> {
+            s.assertPublicJavaClass(input.analyzeTaskDef(), "TigerAnalyze");
+            s.assertPublicJavaClass(input.analyzeProjectTaskDef(), "TigerAnalyzeProject");
+            s.assertPublicJavaClass(input.analyzeProjectFileTaskDef(), "TigerAnalyzeProjectFile");
+        });
+    }
 }
@@ -16,6 +16,9 @@ class LanguageProjectTest extends TestBase {
         // Compile language project and test generated files.
         final LanguageProject.Input input = compileLanguageProject(shared);
         fileAssertions.asserts(input.generatedGradleKtsFile(), (a) -> a.assertContains("mb/tiger"));
+        // Serialized parse table and styling rules are generated as resources of the main source set.
+        fileAssertions.asserts(input.generatedGradleKtsFile(), (a) -> a.assertContains("resources.srcDir(files(\"$serializedResourcesDir/parseTable\").builtBy(serializeParseTableTask))"));
+        fileAssertions.asserts(input.generatedGradleKtsFile(), (a) -> a.assertContains("resources.srcDir(files(\"$serializedResourcesDir/stylingRules\").builtBy(serializeStylingRulesTask))"));
         fileAssertions.scopedExists(input.classesGenDirectory(), (s) -> {
             s.asserts(input.packageInfo(), (a) -> a.assertAll("package-info.java", "@DefaultQualifier(NonNull.class)"));
         });
@@ -40,14 +40,47 @@ class ParserTest extends TestBase {
             s.assertPublicJavaClass(input.genTable(), "TigerParseTable");
             s.assertPublicJavaClass(input.genParser(), "TigerParser");
             s.assertPublicJavaClass(input.genFactory(), "TigerParserFactory");
+            s.asserts(input.genTable(), (a) -> a.assertContains(input.serializedTableTargetRelPath()));
+            s.asserts(input.genParser(), (a) -> a.assertContains("new JSGLR1ParserOptions(true, 5000, 5000, false)"));
         });
         parserCompiler.compileAdapterProject(input);
         fileAssertions.scopedExists(input.adapterClassesGenDirectory(), (s) -> {
             s.assertPublicJavaClass(input.genParseTaskDef(), "TigerParse");
+            s.asserts(input.genParseTaskDef(), (a) -> a.assertContains("parser.parse(text, \"" + input.startSymbol() + "\", input.resourceKey, input.options)"));
             s.assertPublicJavaClass(input.tokenizeTaskDef(), "TigerTokenize");
         });
     }
 
+    @ParameterizedTest @EnumSource(value = Parser.Variant.class, names = {"JSGLR2", "JSGLR2Incremental"})
+    void testCompilerJSGLR2(Parser.Variant variant) throws IOException {
+        final FSPath baseDirectory = new FSPath(fileSystem.getPath("repo"));
+        final Shared shared = TigerInputs.shared(baseDirectory);
+        final Parser.Input input = TigerInputs.parserBuilder(shared)
+            .variant(variant)
+            .build();
+
+        parserCompiler.compileLanguageProject(input);
+        fileAssertions.scopedExists(input.languageClassesGenDirectory(), (s) -> {
+            s.assertPublicJavaClass(input.genTable(), "TigerParseTable");
+            s.assertPublicJavaClass(input.genParser(), "TigerParser");
+            s.assertPublicJavaClass(input.genFactory(), "TigerParserFactory");
+            s.asserts(input.genTable(), (a) -> a.assertContains("JSGLR2ParseTable"));
+            if(input.jsglr2Incremental()) {
+                s.asserts(input.genParser(), (a) -> a.assertContains("new JSGLR2IncrementalParser(parseTable.parseTable)"));
+                s.asserts(input.genParser(), (a) -> a.assertContains("parser.forget(resource)"));
+            } else {
+                s.asserts(input.genParser(), (a) -> a.assertContains("new JSGLR2ParserPool(parseTable.parseTable, JSGLR2ParserVariant." + input.jsglr2Variant() + ")"));
+                s.asserts(input.genFactory(), (a) -> a.assertContains("new TigerParser(parserPool)"));
+            }
+        });
+        parserCompiler.compileAdapterProject(input);
+        fileAssertions.scopedExists(input.adapterClassesGenDirectory(), (s) -> {
+            s.assertPublicJavaClass(input.genParseTaskDef(), "TigerParse");
+            s.asserts(input.genParseTaskDef(), (a) -> a.assertContains("JSGLR2ParseResult"));
+            s.asserts(input.genParseTaskDef(), (a) -> a.assertContains("parser.parse(text, \"" + input.startSymbol() + "\", input.resourceKey)"));
+        });
+    }
+
     @Test void testCompilerManual() throws IOException {
         final FSPath baseDirectory = new FSPath(fileSystem.getPath("repo"));
         final Shared shared = TigerInputs.shared(baseDirectory);
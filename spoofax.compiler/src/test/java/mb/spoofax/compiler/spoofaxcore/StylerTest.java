@@ -17,6 +17,7 @@ class StylerTest extends TestBase {
             s.assertPublicJavaClass(input.genRules(), "TigerStylingRules");
             s.assertPublicJavaClass(input.genStyler(), "TigerStyler");
             s.assertPublicJavaClass(input.genFactory(), "TigerStylerFactory");
+            s.asserts(input.genRules(), (a) -> a.assertContains(input.serializedRulesTargetRelPath()));
         });
         stylerCompiler.compileAdapterProject(input);
         fileAssertions.scopedExists(input.adapterClassesGenDirectory(), (s) -> {
@@ -7,8 +7,7 @@ import mb.pie.api.TaskDef;
 import mb.resource.ResourceService;
 import mb.spoofax.core.language.LanguageScope;
 import mb.stratego.common.StrategoIOAgent;
-import mb.stratego.common.StrategoRuntime;
-import mb.stratego.common.StrategoRuntimeBuilder;
+import mb.stratego.common.StrategoRuntimePool;
 import mb.stratego.common.StrategoUtil;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spoofax.interpreter.terms.IStrategoTerm;
@@ -17,20 +16,17 @@ import javax.inject.Inject;
 
 @LanguageScope
 public class TigerListLiteralVals implements TaskDef<Provider<@Nullable IStrategoTerm>, @Nullable String> {
-    private final StrategoRuntimeBuilder strategoRuntimeBuilder;
-    private final StrategoRuntime prototypeStrategoRuntime;
+    private final StrategoRuntimePool strategoRuntimePool;
     private final LoggerFactory loggerFactory;
     private final ResourceService resourceService;
 
     @Inject
     public TigerListLiteralVals(
-        StrategoRuntimeBuilder strategoRuntimeBuilder,
-        StrategoRuntime prototypeStrategoRuntime,
+        StrategoRuntimePool strategoRuntimePool,
         LoggerFactory loggerFactory,
         ResourceService resourceService
     ) {
-        this.strategoRuntimeBuilder = strategoRuntimeBuilder;
-        this.prototypeStrategoRuntime = prototypeStrategoRuntime;
+        this.strategoRuntimePool = strategoRuntimePool;
         this.loggerFactory = loggerFactory;
         this.resourceService = resourceService;
     }
@@ -47,9 +43,8 @@ public class TigerListLiteralVals implements TaskDef<Provider<@Nullable IStrateg
             return null;
         }
 
-        final StrategoRuntime strategoRuntime = strategoRuntimeBuilder.buildFromPrototype(prototypeStrategoRuntime);
         final String strategyId = "list-of-literal-vals";
-        final @Nullable IStrategoTerm result = strategoRuntime.invoke(strategyId, ast, new StrategoIOAgent(loggerFactory, resourceService));
+        final @Nullable IStrategoTerm result = strategoRuntimePool.invoke(strategyId, ast, new StrategoIOAgent(loggerFactory, resourceService));
         if(result == null) {
             return null;
         }
@@ -1,33 +1,65 @@
 package mb.spoofax.core.language;
 
 import mb.common.message.KeyedMessages;
+import mb.common.region.Region;
 import mb.common.style.Styling;
-import mb.common.token.Token;
+import mb.common.token.TokenStream;
 import mb.common.util.CollectionView;
 import mb.common.util.ListView;
 import mb.common.util.SetView;
 import mb.pie.api.Task;
 import mb.resource.ResourceKey;
+import mb.resource.hierarchical.ResourcePath;
 import mb.spoofax.core.language.cli.CliCommand;
 import mb.spoofax.core.language.command.AutoCommandRequest;
 import mb.spoofax.core.language.command.CommandDef;
 import mb.spoofax.core.language.menu.MenuItem;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.ArrayList;
-
 public interface LanguageInstance {
     String getDisplayName();
 
     SetView<String> getFileExtensions();
 
 
-    Task<@Nullable ArrayList<? extends Token<?>>> createTokenizeTask(ResourceKey resourceKey);
+    Task<@Nullable TokenStream<?>> createTokenizeTask(ResourceKey resourceKey);
 
     Task<@Nullable Styling> createStyleTask(ResourceKey resourceKey);
 
+    /**
+     * Creates a task that only styles the part of the resource for {@code resourceKey} that overlaps {@code region},
+     * such as the visible region of an editor, which can be shown before the entire resource has been styled. Styles
+     * the entire resource by default.
+     */
+    default Task<@Nullable Styling> createStyleTask(ResourceKey resourceKey, Region region) {
+        return createStyleTask(resourceKey);
+    }
+
     Task<KeyedMessages> createCheckTask(ResourceKey resourceKey);
 
+    /**
+     * Creates a task that checks the resource for {@code resourceKey} as part of the project at {@code projectRoot}.
+     * Languages with a multi-file analysis analyze all their files in the project together, and only return the
+     * messages for {@code resourceKey}. Checks the resource in isolation with {@link #createCheckTask(ResourceKey)} by
+     * default.
+     */
+    default Task<KeyedMessages> createCheckTask(ResourcePath projectRoot, ResourceKey resourceKey) {
+        return createCheckTask(resourceKey);
+    }
+
+
+    /**
+     * Notifies this language instance that the resource for {@code resourceKey} is no longer being edited, such that
+     * state kept for incremental processing can be released. Does nothing by default.
+     */
+    default void editingStopped(ResourceKey resourceKey) {}
+
+    /**
+     * Notifies this language instance that the resource for {@code resourceKey}, which is a file or project, was
+     * removed, such that state kept for it can be released. Does nothing by default.
+     */
+    default void resourceRemoved(ResourceKey resourceKey) {}
+
 
     CollectionView<CommandDef<?>> getCommandDefs();
 
@@ -28,6 +28,7 @@ dependencies {
 
     api("org.metaborg:org.spoofax.terms:$spoofaxCoreVersion")
     api("org.metaborg:org.spoofax.jsglr:$spoofaxCoreVersion")
+    api("org.metaborg:org.spoofax.jsglr2:$spoofaxCoreVersion")
     api("org.metaborg:org.spoofax.interpreter.core:$spoofaxCoreVersion")
     api("org.metaborg:org.strategoxt.strj:$spoofaxCoreVersion")
     runtime("org.metaborg:strategoxt-min-jar:$spoofaxCoreVersion")
@@ -11,6 +11,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentExtension4;
@@ -57,7 +58,35 @@ public class EditorUpdateJob extends Job {
     }
 
     private IStatus update(IProgressMonitor monitor) throws ExecException, InterruptedException {
-        pieRunner.addOrUpdateEditor(languageComponent, resource, editor, monitor);
+        // Read the version before reading the text, such that the version is never newer than the text.
+        final long version = editor.getDocumentVersion();
+        final long startTime = System.nanoTime();
+        final IProgressMonitor versionMonitor = new DocumentVersionMonitor(monitor, editor, version);
+        pieRunner.addOrUpdateEditor(languageComponent, resource, editor, versionMonitor);
+        if(versionMonitor.isCanceled()) {
+            return StatusUtil.cancel();
+        }
+        editor.reportUpdateDuration((System.nanoTime() - startTime) / 1_000_000);
         return StatusUtil.success();
     }
+
+
+    /**
+     * Progress monitor that is cancelled when its wrapped monitor is cancelled, or when the document of the editor has
+     * changed since the update started, such that the update is aborted as soon as its result is outdated.
+     */
+    private static class DocumentVersionMonitor extends ProgressMonitorWrapper {
+        private final SpoofaxEditor editor;
+        private final long version;
+
+        private DocumentVersionMonitor(IProgressMonitor monitor, SpoofaxEditor editor, long version) {
+            super(monitor);
+            this.editor = editor;
+            this.version = version;
+        }
+
+        @Override public boolean isCanceled() {
+            return super.isCanceled() || editor.getDocumentVersion() != version;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package mb.spoofax.eclipse.editor;
 
+import mb.common.region.Region;
 import mb.spoofax.eclipse.util.StyleUtil;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -9,6 +10,7 @@ import org.eclipse.jface.text.TextPresentation;
 import org.eclipse.swt.custom.StyleRange;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class PresentationMerger implements ITextPresentationListener {
     private volatile @Nullable TextPresentation sourcePresentation = null;
@@ -16,9 +18,61 @@ public class PresentationMerger implements ITextPresentationListener {
 
 
     public void set(TextPresentation presentation) {
+        set(presentation, prepare(presentation));
+    }
+
+    /**
+     * Sets the style ranges of this merger to {@code styleRanges}, which have been prepared for {@code presentation}
+     * with {@link #prepare(TextPresentation)} or {@link #prepare(List, TextPresentation, Region, int)}, such that no
+     * style ranges need to be copied or shifted on the main thread.
+     */
+    public void set(TextPresentation presentation, ArrayList<StyleRange> styleRanges) {
         sourcePresentation = presentation;
+        this.styleRanges = styleRanges;
+    }
+
+
+    /**
+     * Prepares the style ranges of a merger for given {@code presentation} of the entire text.
+     */
+    public static ArrayList<StyleRange> prepare(TextPresentation presentation) {
         // Make a deep copy of style ranges to prevent sharing with other ITextPresentationListeners.
-        styleRanges = StyleUtil.deepCopies(presentation);
+        return StyleUtil.deepCopies(presentation);
+    }
+
+    /**
+     * Prepares the style ranges of a merger for a presentation of a damaged region of the text: style ranges of {@code
+     * previousStyleRanges} in the damaged region are replaced with those of {@code presentation}, and style ranges after
+     * it are shifted by {@code lengthDelta}. Does not modify {@code previousStyleRanges}, such that this can be done
+     * while the previous style ranges are in use by a merger.
+     *
+     * @param region      Damaged region, in the new text.
+     * @param lengthDelta Difference in length between the new and previous text.
+     */
+    public static ArrayList<StyleRange> prepare(List<StyleRange> previousStyleRanges, TextPresentation presentation, Region region, int lengthDelta) {
+        final int start = region.getStartOffset();
+        final int previousEnd = region.getEndOffset() - lengthDelta;
+        final ArrayList<StyleRange> newStyleRanges = new ArrayList<>(previousStyleRanges.size());
+        int i = 0;
+        final int size = previousStyleRanges.size();
+        for(; i < size; ++i) {
+            final StyleRange styleRange = previousStyleRanges.get(i);
+            if(styleRange.start + styleRange.length > start) break;
+            newStyleRanges.add(styleRange);
+        }
+        newStyleRanges.addAll(StyleUtil.deepCopies(presentation));
+        for(; i < size; ++i) {
+            final StyleRange styleRange = previousStyleRanges.get(i);
+            if(styleRange.start < previousEnd) continue;
+            if(lengthDelta == 0) {
+                newStyleRanges.add(styleRange);
+            } else {
+                final StyleRange shifted = StyleUtil.deepCopy(styleRange);
+                shifted.start += lengthDelta;
+                newStyleRanges.add(shifted);
+            }
+        }
+        return newStyleRanges;
     }
 
     public void invalidate() {
@@ -0,0 +1,67 @@
+package mb.spoofax.eclipse.editor;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Schedules presentation updates of a single editor on the main thread, coalescing updates that are scheduled before
+ * the main thread gets to them: only the latest update is applied. Updates are tagged with the version of the document
+ * they were created for, and updates for older versions than an update that was already scheduled are dropped, as they
+ * would be overwritten anyway.
+ *
+ * Updates should be prepared as much as possible on the thread that schedules them, such that the main thread only has
+ * to apply them.
+ */
+class PresentationScheduler {
+    private final Object lock = new Object();
+    private @Nullable Runnable pendingUpdate = null;
+    private long latestVersion = Long.MIN_VALUE;
+    private boolean applyScheduled = false;
+
+
+    /**
+     * Schedules {@code update} to be run on the main thread, replacing the pending update if any.
+     *
+     * @param version Version of the document {@code update} was created for.
+     * @return False if {@code update} was dropped because an update for a newer version has been scheduled, true
+     * otherwise.
+     */
+    boolean schedule(long version, Runnable update) {
+        synchronized(lock) {
+            if(version < latestVersion) {
+                return false;
+            }
+            latestVersion = version;
+            pendingUpdate = update;
+            if(applyScheduled) {
+                // Main thread has not taken the pending update yet, it will take this update instead.
+                return true;
+            }
+            applyScheduled = true;
+        }
+        Display.getDefault().asyncExec(this::applyPendingUpdate);
+        return true;
+    }
+
+    /**
+     * Drops the pending update, if any.
+     */
+    void cancel() {
+        synchronized(lock) {
+            pendingUpdate = null;
+        }
+    }
+
+
+    private void applyPendingUpdate() {
+        final @Nullable Runnable update;
+        synchronized(lock) {
+            update = pendingUpdate;
+            pendingUpdate = null;
+            applyScheduled = false;
+        }
+        if(update != null) {
+            update.run();
+        }
+    }
+}
@@ -3,6 +3,8 @@ package mb.spoofax.eclipse.editor;
 import mb.common.region.Region;
 import mb.common.region.Selection;
 import mb.common.region.Selections;
+import mb.common.style.Styling;
+import mb.common.style.StylingDelta;
 import mb.log.api.Logger;
 import mb.log.api.LoggerFactory;
 import mb.spoofax.eclipse.EclipseLanguageComponent;
@@ -22,13 +24,14 @@ import org.eclipse.jface.text.*;
 import org.eclipse.jface.text.source.ISourceViewer;
 import org.eclipse.jface.text.source.IVerticalRuler;
 import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.widgets.Composite;
-import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.editors.text.TextEditor;
 import org.eclipse.ui.texteditor.IDocumentProvider;
 import org.eclipse.ui.texteditor.SourceViewerDecorationSupport;
 
+import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -39,12 +42,52 @@ public abstract class SpoofaxEditor extends TextEditor {
         }
 
         @Override public void documentChanged(@NonNull DocumentEvent event) {
+            ++documentVersion;
             scheduleJob(false);
         }
     }
 
 
+    /**
+     * Styling that has been applied to an editor, and the text it was applied to.
+     */
+    public static final class AppliedStyling {
+        private final Styling styling;
+        private final String text;
+        // Style ranges of the presentation merger for this styling, which must not be modified.
+        private final ArrayList<StyleRange> styleRanges;
+
+        private AppliedStyling(Styling styling, String text, ArrayList<StyleRange> styleRanges) {
+            this.styling = styling;
+            this.text = text;
+            this.styleRanges = styleRanges;
+        }
+
+        public Styling getStyling() {
+            return styling;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+
+
+    private static final int estimatedVisibleLineCount = 100;
+    // Bounds of the delay before an editor update is run after the document changes.
+    private static final long minimumUpdateDelay = 50;
+    private static final long maximumUpdateDelay = 1000;
+    private static final long initialUpdateDelay = 300;
+
+
     private final PresentationMerger presentationMerger = new PresentationMerger();
+    private final PresentationScheduler presentationScheduler = new PresentationScheduler();
+    // Only set on the main thread, may be read from any thread.
+    private volatile @Nullable AppliedStyling appliedStyling;
+    private volatile long documentVersion;
+    // Only set by editor update jobs, which do not run concurrently for the same editor.
+    private volatile long averageUpdateDuration = initialUpdateDelay;
+    private volatile @Nullable Region visibleRegion;
 
     private final EclipseLanguageComponent languageComponent;
 
@@ -97,35 +140,155 @@ public abstract class SpoofaxEditor extends TextEditor {
     }
 
 
-    public void setStyleAsync(TextPresentation textPresentation, @Nullable String text, int textLength, @Nullable IProgressMonitor monitor) {
-        presentationMerger.set(textPresentation);
+    /**
+     * Gets the region of the document that is visible in this editor. When this editor has not been shown yet, the
+     * region of the first lines of the document is returned as an estimate.
+     *
+     * @return Visible region, or null if this editor has no document.
+     */
+    public @Nullable Region getVisibleRegion() {
+        final @Nullable Region region = visibleRegion;
+        if(region != null) {
+            return region;
+        }
+        final @Nullable IDocument document = this.document;
+        if(document == null) {
+            return null;
+        }
+        try {
+            final int lastLine = Math.min(document.getNumberOfLines(), estimatedVisibleLineCount) - 1;
+            return Region.fromOffsets(0, document.getLineOffset(lastLine) + document.getLineLength(lastLine));
+        } catch(BadLocationException e) {
+            // Document changed concurrently, estimate based on entire document instead.
+            return Region.fromOffsetLength(0, document.getLength());
+        }
+    }
+
+    private void updateVisibleRegion() {
+        if(sourceViewer == null) return;
+        final int startOffset = sourceViewer.getTopIndexStartOffset();
+        final int endOffset = sourceViewer.getBottomIndexEndOffset();
+        if(startOffset < 0 || endOffset < startOffset) return;
+        visibleRegion = Region.fromOffsets(startOffset, endOffset + 1);
+    }
+
+
+    /**
+     * Gets the version of the document of this editor, which increases with every change to the document. Read the
+     * version before reading the text of the document, such that the version is never newer than the text.
+     */
+    public long getDocumentVersion() {
+        return documentVersion;
+    }
+
+
+    /**
+     * Reports that an editor update took {@code duration} milliseconds, which is used to adapt the delay before the next
+     * update is run: the more expensive updates are, the longer the editor waits for typing to stop, as updates are
+     * cancelled when the document changes.
+     */
+    public void reportUpdateDuration(long duration) {
+        // Exponential moving average, such that the delay adapts to recent costs without jumping on outliers.
+        averageUpdateDuration = (averageUpdateDuration * 3 + duration) / 4;
+    }
+
+    private long updateDelay() {
+        return Math.max(minimumUpdateDelay, Math.min(maximumUpdateDelay, averageUpdateDuration));
+    }
+
+
+    /**
+     * Gets the styling that was last applied to this editor, or null if no styling has been applied, or if the styling
+     * was removed.
+     */
+    public @Nullable AppliedStyling getAppliedStyling() {
+        return appliedStyling;
+    }
+
+    /**
+     * Applies given {@code textPresentation} of the entire text to this editor on the main thread. When a presentation
+     * for a newer {@code version} of the document is scheduled before this presentation is applied, this presentation
+     * is dropped.
+     *
+     * @param version Version of the document the presentation was created for.
+     */
+    public void setStyleAsync(long version, TextPresentation textPresentation, @Nullable IProgressMonitor monitor) {
+        final ArrayList<StyleRange> styleRanges = PresentationMerger.prepare(textPresentation);
         // Update textPresentation on the main thread, required by Eclipse.
-        Display.getDefault().asyncExec(() -> {
-            // Cancel if monitor is cancelled.
-            if(monitor != null && monitor.isCanceled()) {
-                return;
-            }
-            // Cancel if editor has been closed.
-            if(document == null || sourceViewer == null) {
+        presentationScheduler.schedule(version, () -> {
+            if(!canApplyStyle(version, monitor)) {
                 return;
             }
-            // Cancel if editor has no text.
-            final String currentText = document.get();
-            if(currentText == null) {
+            presentationMerger.set(textPresentation, styleRanges);
+            appliedStyling = null;
+            changeTextPresentation(textPresentation);
+        });
+    }
+
+    /**
+     * Applies given styling {@code delta} to this editor on the main thread. When {@code base} is not null, {@code
+     * delta} must be a delta from the styling of {@code base}. If {@code base} is not the {@link #getAppliedStyling()
+     * applied styling} by the time the delta is applied, the delta is dropped and the editor is updated again, such
+     * that a new delta is computed from the applied styling. When a presentation for a newer {@code version} of the
+     * document is scheduled before this delta is applied, this delta is dropped.
+     *
+     * The style ranges of the editor are merged on the calling thread, such that the main thread only has to change the
+     * presentation.
+     *
+     * @param version          Version of the document the delta was created for.
+     * @param textPresentation Text presentation created from {@code delta}.
+     */
+    public void setStyleAsync(long version, StylingDelta delta, @Nullable AppliedStyling base, TextPresentation textPresentation, String text, @Nullable IProgressMonitor monitor) {
+        final boolean applyFull = delta.isFull() || base == null;
+        final ArrayList<StyleRange> styleRanges;
+        if(applyFull) {
+            styleRanges = PresentationMerger.prepare(textPresentation);
+        } else {
+            styleRanges = PresentationMerger.prepare(base.styleRanges, textPresentation, delta.getRegion(), text.length() - base.getText().length());
+        }
+        if(monitor != null && monitor.isCanceled()) return;
+        // Update textPresentation on the main thread, required by Eclipse.
+        presentationScheduler.schedule(version, () -> {
+            if(!canApplyStyle(version, monitor)) {
                 return;
             }
-            // Cancel if the text the presentation was made for is different than the current text.
-            if(textLength != currentText.length() || (text != null && !text.equals(currentText))) {
+            if(!applyFull && base != appliedStyling) {
+                // Delta is not based on the currently applied styling. This is rare, so instead of creating the
+                // presentation of the entire styling here, update the editor again to compute a delta from the
+                // applied styling.
+                scheduleJob(false);
                 return;
             }
-            try {
-                sourceViewer.changeTextPresentation(textPresentation, true);
-            } catch(IllegalArgumentException e) {
-                logger.error("Changing text presentation asynchronously failed unexpectedly", e);
+            presentationMerger.set(textPresentation, styleRanges);
+            if(applyFull || !delta.isEmpty()) {
+                changeTextPresentation(textPresentation);
             }
+            appliedStyling = new AppliedStyling(delta.getStyling(), text, styleRanges);
         });
     }
 
+    private boolean canApplyStyle(long version, @Nullable IProgressMonitor monitor) {
+        // Cancel if monitor is cancelled.
+        if(monitor != null && monitor.isCanceled()) {
+            return false;
+        }
+        // Cancel if editor has been closed.
+        if(document == null || sourceViewer == null) {
+            return false;
+        }
+        // Cancel if the document changed since the presentation was made, which is cheaper than comparing the text.
+        return version == documentVersion;
+    }
+
+    private void changeTextPresentation(TextPresentation textPresentation) {
+        if(sourceViewer == null) return;
+        try {
+            sourceViewer.changeTextPresentation(textPresentation, true);
+        } catch(IllegalArgumentException e) {
+            logger.error("Changing text presentation asynchronously failed unexpectedly", e);
+        }
+    }
+
 
     @Override protected void initializeEditor() {
         super.initializeEditor();
@@ -171,6 +334,7 @@ public abstract class SpoofaxEditor extends TextEditor {
         configureSourceViewerDecorationSupport(decorationSupport);
 
         ((ITextViewerExtension4) sourceViewer).addTextPresentationListener(presentationMerger);
+        sourceViewer.addViewportListener(verticalOffset -> updateVisibleRegion());
 
         if(document != null) {
             scheduleJob(true);
@@ -181,17 +345,20 @@ public abstract class SpoofaxEditor extends TextEditor {
 
     @Override public void dispose() {
         cancelJobs();
+        presentationScheduler.cancel();
 
         if(document != null && documentListener != null) {
             document.removeDocumentListener(documentListener);
         }
 
         if(resource != null) {
-            pieRunner.removeEditor(resource);
+            pieRunner.removeEditor(languageComponent, resource);
         }
 
         input = null;
         sourceViewer = null;
+        appliedStyling = null;
+        visibleRegion = null;
 
         document = null;
         documentListener = null;
@@ -206,7 +373,7 @@ public abstract class SpoofaxEditor extends TextEditor {
         cancelJobs();
         final Job job = new EditorUpdateJob(loggerFactory, pieRunner, languageComponent, resource, this);
         job.setRule(resource.getWrappedEclipseResource()); // May return null, but null is a valid scheduling rule.
-        job.schedule(initialUpdate ? 0 : 300);
+        job.schedule(initialUpdate ? 0 : updateDelay());
     }
 
     private void cancelJobs() {
@@ -1,6 +1,7 @@
 package mb.spoofax.eclipse.pie;
 
 import mb.common.message.KeyedMessages;
+import mb.common.region.Region;
 import mb.common.style.Styling;
 import mb.common.util.CollectionView;
 import mb.common.util.EnumSetView;
@@ -126,15 +127,38 @@ public class PieRunner {
 
             final LanguageInstance languageInstance = languageComponent.getLanguageInstance();
 
-            final Task<@Nullable Styling> styleTask = languageInstance.createStyleTask(key);
+            // Read the version before the text, such that the version is never newer than the text.
+            final long version = editor.getDocumentVersion();
             final String text = resource.getDocument().get();
+            if(editor.getAppliedStyling() == null) {
+                // Editor has not been styled yet: style its visible region first, which can be shown before the entire
+                // text has been styled.
+                final @Nullable Region visibleRegion = editor.getVisibleRegion();
+                if(visibleRegion != null && visibleRegion.length() < text.length()) {
+                    final Task<@Nullable Styling> visibleStyleTask = languageInstance.createStyleTask(key, visibleRegion);
+                    final @Nullable Styling visibleStyling = requireWithoutObserving(visibleStyleTask, postSession, monitor);
+                    //noinspection ConstantConditions (styling can really be null)
+                    if(visibleStyling != null) {
+                        final WorkspaceUpdate visibleStyleUpdate = workspaceUpdateFactory.create(languageComponent);
+                        visibleStyleUpdate.updatePartialStyle(editor, version, text, visibleStyling);
+                        visibleStyleUpdate.updateStyles(monitor);
+                    }
+                    if(monitor != null && monitor.isCanceled()) return;
+                }
+            }
+
+            final Task<@Nullable Styling> styleTask = languageInstance.createStyleTask(key);
             final @Nullable Styling styling = requireWithoutObserving(styleTask, postSession, monitor);
+            // Apply the style before checking, such that the style is shown even when checking takes long.
+            final WorkspaceUpdate styleUpdate = workspaceUpdateFactory.create(languageComponent);
             //noinspection ConstantConditions (styling can really be null)
             if(styling != null) {
-                workspaceUpdate.updateStyle(editor, text, styling);
+                styleUpdate.updateStyle(editor, version, text, styling);
             } else {
-                workspaceUpdate.removeStyle(editor, text.length());
+                styleUpdate.removeStyle(editor, version, text.length());
             }
+            styleUpdate.updateStyles(monitor);
+            if(monitor != null && monitor.isCanceled()) return;
 
             final Task<KeyedMessages> checkTask = languageInstance.createCheckTask(key);
             final KeyedMessages messages = requireWithoutObserving(checkTask, postSession, monitor);
@@ -145,9 +169,10 @@ public class PieRunner {
         workspaceUpdate.update(resource.getWrappedEclipseResource(), monitor);
     }
 
-    public void removeEditor(EclipseDocumentResource resource) {
+    public void removeEditor(EclipseLanguageComponent languageComponent, EclipseDocumentResource resource) {
         logger.trace("Removing editor for '{}'", resource);
         eclipseDocumentResourceRegistry.removeDocumentResource(resource);
+        languageComponent.getLanguageInstance().editingStopped(resource.getKey());
     }
 
 
@@ -178,7 +203,14 @@ public class PieRunner {
     ) throws ExecException, InterruptedException, CoreException, IOException {
         logger.trace("Running incremental build for project '{}'", project);
 
-        final ResourceChanges resourceChanges = new ResourceChanges(delta, languageComponent.getLanguageInstance().getFileExtensions());
+        final LanguageInstance languageInstance = languageComponent.getLanguageInstance();
+        final ResourceChanges resourceChanges = new ResourceChanges(delta, languageInstance.getFileExtensions());
+        for(ResourcePath removedProject : resourceChanges.removedProjects) {
+            languageInstance.resourceRemoved(removedProject);
+        }
+        for(ResourcePath removedFile : resourceChanges.removedFiles) {
+            languageInstance.resourceRemoved(removedFile);
+        }
 
         bottomUpWorkspaceUpdate = workspaceUpdateFactory.create(languageComponent);
         try(final PieSession session = languageComponent.newPieSession()) {
@@ -243,7 +275,7 @@ public class PieRunner {
         EclipseLanguageComponent languageComponent,
         EclipseResourcePath file
     ) {
-        final Task<KeyedMessages> checkTask = languageComponent.getLanguageInstance().createCheckTask(file);
+        final Task<KeyedMessages> checkTask = createCheckTask(languageComponent.getLanguageInstance(), file);
         return pie.isObserved(checkTask);
     }
 
@@ -257,7 +289,7 @@ public class PieRunner {
             final LanguageInstance languageInstance = languageComponent.getLanguageInstance();
             for(IFile file : files) {
                 final EclipseResourcePath resourceKey = new EclipseResourcePath(file);
-                final Task<KeyedMessages> checkTask = languageInstance.createCheckTask(resourceKey);
+                final Task<KeyedMessages> checkTask = createCheckTask(languageInstance, resourceKey);
                 pie.setCallback(checkTask, (messages) -> {
                     if(bottomUpWorkspaceUpdate != null) {
                         bottomUpWorkspaceUpdate.replaceMessages(messages);
@@ -282,7 +314,7 @@ public class PieRunner {
             final LanguageInstance languageInstance = languageComponent.getLanguageInstance();
             for(IFile file : files) {
                 final EclipseResourcePath resourceKey = new EclipseResourcePath(file);
-                final Task<KeyedMessages> checkTask = languageInstance.createCheckTask(resourceKey);
+                final Task<KeyedMessages> checkTask = createCheckTask(languageInstance, resourceKey);
                 // BUG: this also clears messages for open editors, which it shouldn't do.
                 workspaceUpdate.clearMessages(resourceKey);
                 unobserve(checkTask, pie, session, monitor);
@@ -291,6 +323,18 @@ public class PieRunner {
         workspaceUpdate.update(null, monitor);
     }
 
+    /**
+     * Creates a check task for {@code file} as part of its project, such that languages with a multi-file analysis
+     * analyze it together with the other files in its project.
+     */
+    private static Task<KeyedMessages> createCheckTask(LanguageInstance languageInstance, EclipseResourcePath file) {
+        final @Nullable EclipseResourcePath project = file.getProject();
+        if(project == null) {
+            return languageInstance.createCheckTask(file);
+        }
+        return languageInstance.createCheckTask(project, file);
+    }
+
 
     // Requiring commands
 
@@ -4,15 +4,15 @@ import mb.common.message.KeyedMessages;
 import mb.common.message.KeyedMessagesBuilder;
 import mb.common.style.Color;
 import mb.common.style.Styling;
+import mb.common.style.StylingDelta;
 import mb.log.api.Logger;
 import mb.log.api.LoggerFactory;
 import mb.resource.ResourceKey;
 import mb.spoofax.eclipse.EclipseLanguageComponent;
 import mb.spoofax.eclipse.editor.SpoofaxEditor;
-import mb.spoofax.eclipse.util.MarkerUtil;
+import mb.spoofax.eclipse.util.MarkerReconciler;
 import mb.spoofax.eclipse.util.ResourceUtil;
 import mb.spoofax.eclipse.util.StyleUtil;
-import mb.spoofax.eclipse.util.UncheckedCoreException;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspace;
@@ -101,75 +101,119 @@ public class WorkspaceUpdate {
 
     private static class StyleUpdate {
         public final SpoofaxEditor editor;
+        public final long version;
         public final @Nullable String text;
         public final int textLength;
         public final TextPresentation textPresentation;
+        public final @Nullable StylingDelta delta;
+        public final SpoofaxEditor.@Nullable AppliedStyling base;
 
-        public StyleUpdate(SpoofaxEditor editor, @Nullable String text, int textLength, TextPresentation textPresentation) {
+        public StyleUpdate(SpoofaxEditor editor, long version, @Nullable String text, int textLength, TextPresentation textPresentation) {
+            this(editor, version, text, textLength, textPresentation, null, null);
+        }
+
+        public StyleUpdate(SpoofaxEditor editor, long version, @Nullable String text, int textLength, TextPresentation textPresentation, @Nullable StylingDelta delta, SpoofaxEditor.@Nullable AppliedStyling base) {
             this.editor = editor;
+            this.version = version;
             this.text = text;
             this.textLength = textLength;
             this.textPresentation = textPresentation;
+            this.delta = delta;
+            this.base = base;
+        }
+    }
+
+    /**
+     * Updates the style of {@code editor} to {@code styling}. Only the region of the text in which {@code styling}
+     * differs from the styling that is applied to the editor is restyled.
+     *
+     * @param version {@link SpoofaxEditor#getDocumentVersion() Version} of the document of {@code editor}, read before
+     *                {@code text} was read.
+     */
+    public void updateStyle(SpoofaxEditor editor, long version, String text, Styling styling) {
+        final SpoofaxEditor.@Nullable AppliedStyling base = editor.getAppliedStyling();
+        final StylingDelta delta;
+        if(base != null) {
+            delta = StylingDelta.compute(base.getStyling(), base.getText(), styling, text);
+        } else {
+            delta = StylingDelta.full(styling, text.length());
         }
+        final TextPresentation textPresentation = styleUtil.createTextPresentation(delta);
+        styleUpdates.add(new StyleUpdate(editor, version, text, text.length(), textPresentation, delta, base));
     }
 
-    public void updateStyle(SpoofaxEditor editor, String text, Styling styling) {
+    /**
+     * Updates the style of {@code editor} to {@code styling}, which only styles part of the text, such as the visible
+     * region of the editor. Styles outside of that part are reset, until the style of the editor is updated with a
+     * styling of the entire text.
+     */
+    public void updatePartialStyle(SpoofaxEditor editor, long version, String text, Styling styling) {
         final TextPresentation textPresentation = styleUtil.createTextPresentation(styling, text.length());
-        styleUpdates.add(new StyleUpdate(editor, text, text.length(), textPresentation));
+        styleUpdates.add(new StyleUpdate(editor, version, text, text.length(), textPresentation));
     }
 
-    public void removeStyle(SpoofaxEditor editor, int textLength) {
+    public void removeStyle(SpoofaxEditor editor, long version, int textLength) {
         final TextPresentation textPresentation = styleUtil.createTextPresentation(Color.black, textLength);
-        styleUpdates.add(new StyleUpdate(editor, null, textLength, textPresentation));
+        styleUpdates.add(new StyleUpdate(editor, version, null, textLength, textPresentation));
     }
 
 
     public void update(@Nullable ISchedulingRule rule, @Nullable IProgressMonitor monitor) {
         if(monitor != null && monitor.isCanceled()) return;
 
+        // Schedule style updates first, as they are applied asynchronously and do not have to wait for markers.
+        updateStyles(monitor);
+        if(monitor != null && monitor.isCanceled()) return;
+
         final KeyedMessages messages = messagesBuilder.build();
 
         final ICoreRunnable makerUpdate = (IWorkspaceRunnable) workspaceMonitor -> {
+            // Only delete and create the markers that changed, as clearing and recreating all markers of a resource
+            // causes many marker changes and resource change events.
+            final MarkerReconciler reconciler = new MarkerReconciler(languageComponent.getEclipseIdentifiers());
             for(ResourceKey resourceKey : clearRecursively) {
                 if(workspaceMonitor != null && workspaceMonitor.isCanceled()) return;
                 final IResource resource = resourceUtil.getEclipseResource(resourceKey);
-                MarkerUtil.clearAllRec(languageComponent.getEclipseIdentifiers(), resource);
+                reconciler.clearRec(resource);
             }
             for(ResourceKey resourceKey : clear) {
                 if(workspaceMonitor != null && workspaceMonitor.isCanceled()) return;
                 final IResource resource = resourceUtil.getEclipseResource(resourceKey);
-                MarkerUtil.clearAll(languageComponent.getEclipseIdentifiers(), resource);
+                reconciler.clear(resource);
             }
-            try {
-                messages.accept((text, exception, severity, resourceKey, region) -> {
-                    if(workspaceMonitor != null && workspaceMonitor.isCanceled()) return false;
-                    if(resourceKey == null) {
-                        logger.warn("Cannot create marker with text '" + text + "'; it has no corresponding resource");
-                        return true;
-                    }
-                    final IResource resource = resourceUtil.getEclipseResource(resourceKey);
-                    try {
-                        MarkerUtil.createMarker(languageComponent.getEclipseIdentifiers(), text, severity, resource, region);
-                    } catch(CoreException e) {
-                        throw new UncheckedCoreException(e);
-                    }
+            messages.accept((text, exception, severity, resourceKey, region) -> {
+                if(workspaceMonitor != null && workspaceMonitor.isCanceled()) return false;
+                if(resourceKey == null) {
+                    logger.warn("Cannot create marker with text '" + text + "'; it has no corresponding resource");
                     return true;
-                });
-            } catch(UncheckedCoreException e) {
-                throw e.getCause();
-            }
+                }
+                final IResource resource = resourceUtil.getEclipseResource(resourceKey);
+                reconciler.add(text, severity, resource, region);
+                return true;
+            });
+            if(workspaceMonitor != null && workspaceMonitor.isCanceled()) return;
+            reconciler.apply(ResourcesPlugin.getWorkspace());
         };
         try {
             ResourcesPlugin.getWorkspace().run(makerUpdate, rule, IWorkspace.AVOID_UPDATE, monitor);
         } catch(CoreException e) {
             logger.error("Running marker update failed unexpectedly", e);
-            return;
         }
+    }
 
+    /**
+     * Schedules only the style updates, without updating markers. Style updates for an editor are coalesced by the
+     * editor, so only the latest style update is applied if the editor is updated again before it gets to them.
+     */
+    public void updateStyles(@Nullable IProgressMonitor monitor) {
         for(StyleUpdate styleUpdate : styleUpdates) {
             if(monitor != null && monitor.isCanceled()) return;
             final SpoofaxEditor editor = styleUpdate.editor;
-            editor.setStyleAsync(styleUpdate.textPresentation, styleUpdate.text, styleUpdate.textLength, monitor);
+            if(styleUpdate.delta != null && styleUpdate.text != null) {
+                editor.setStyleAsync(styleUpdate.version, styleUpdate.delta, styleUpdate.base, styleUpdate.textPresentation, styleUpdate.text, monitor);
+            } else {
+                editor.setStyleAsync(styleUpdate.version, styleUpdate.textPresentation, monitor);
+            }
         }
     }
 }
@@ -73,6 +73,16 @@ public class EclipseResourcePath implements ResourcePath {
         return new EclipseResourcePath(path.uptoSegment(0));
     }
 
+    /**
+     * Gets the path to the project this path is in, or {@code null} if this is the workspace root path.
+     */
+    public @Nullable EclipseResourcePath getProject() {
+        if(path.segmentCount() == 0) {
+            return null;
+        }
+        return new EclipseResourcePath(path.uptoSegment(1));
+    }
+
     @Override public @Nullable String getLeaf() {
         return path.lastSegment();
     }
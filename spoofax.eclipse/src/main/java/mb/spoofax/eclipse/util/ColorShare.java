@@ -12,12 +12,15 @@ import java.util.HashMap;
 
 @Singleton
 public class ColorShare implements ISharedTextColors {
-    private HashMap<RGB, Color> colors = new HashMap<>();
+    private final HashMap<RGB, Color> colors = new HashMap<>();
 
     @Inject public ColorShare() {
     }
 
-    @Override public Color getColor(@NonNull RGB rgb) {
+    /**
+     * Gets the shared color for {@code rgb}. Synchronized, as presentations are created on background threads.
+     */
+    @Override public synchronized Color getColor(@NonNull RGB rgb) {
         Color color = colors.get(rgb);
         if(color == null) {
             color = new Color(Display.getDefault(), rgb);
@@ -26,7 +29,7 @@ public class ColorShare implements ISharedTextColors {
         return color;
     }
 
-    @Override public void dispose() {
+    @Override public synchronized void dispose() {
         for(Color color : colors.values()) {
             color.dispose();
         }
@@ -0,0 +1,151 @@
+package mb.spoofax.eclipse.util;
+
+import mb.common.message.Severity;
+import mb.common.region.Region;
+import mb.spoofax.eclipse.EclipseIdentifiers;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.CoreException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * Updates markers by only deleting markers that are no longer needed, and only creating markers that do not exist yet,
+ * instead of deleting all markers of a resource and recreating them. Markers are identified by their resource, type
+ * (which is determined by their severity), region, and text.
+ *
+ * Usage: first {@link #clear(IResource) clear} resources whose markers are replaced, then {@link #add add} the new
+ * markers, and finally {@link #apply(IWorkspace) apply} the difference. Markers of cleared resources that are not added
+ * again are deleted in one batch by {@link #apply(IWorkspace)}.
+ */
+public class MarkerReconciler {
+    private final EclipseIdentifiers eclipseIdentifiers;
+    // Existing markers of cleared resources that have not been added again, which will be deleted.
+    private final HashMap<MarkerKey, ArrayDeque<IMarker>> existing = new HashMap<>();
+    private final ArrayList<MarkerKey> create = new ArrayList<>();
+
+
+    public MarkerReconciler(EclipseIdentifiers eclipseIdentifiers) {
+        this.eclipseIdentifiers = eclipseIdentifiers;
+    }
+
+
+    /**
+     * Clears markers of {@code resource}: they will be deleted, unless equal markers are added again.
+     */
+    public void clear(IResource resource) throws CoreException {
+        clear(resource, IResource.DEPTH_ZERO);
+    }
+
+    /**
+     * Clears markers of {@code resource} and all its descendants: they will be deleted, unless equal markers are added
+     * again.
+     */
+    public void clearRec(IResource resource) throws CoreException {
+        clear(resource, IResource.DEPTH_INFINITE);
+    }
+
+    private void clear(IResource resource, int depth) throws CoreException {
+        if(!resource.exists()) return;
+        final IMarker[] markers = resource.findMarkers(eclipseIdentifiers.getBaseMarker(), true, depth);
+        for(IMarker marker : markers) {
+            final MarkerKey key = new MarkerKey(
+                marker.getResource(),
+                marker.getType(),
+                marker.getAttribute(IMarker.SEVERITY, -1),
+                marker.getAttribute(IMarker.CHAR_START, -1),
+                marker.getAttribute(IMarker.CHAR_END, -1),
+                marker.getAttribute(IMarker.MESSAGE, "")
+            );
+            existing.computeIfAbsent(key, k -> new ArrayDeque<>()).add(marker);
+        }
+    }
+
+    /**
+     * Adds a marker. If an equal marker exists on a cleared resource, it is kept instead of creating a new one.
+     */
+    public void add(String text, Severity severity, IResource resource, @Nullable Region region) {
+        final int eclipseSeverity = MarkerUtil.severity(severity);
+        final MarkerKey key = new MarkerKey(
+            resource,
+            MarkerUtil.id(eclipseIdentifiers, eclipseSeverity),
+            eclipseSeverity,
+            region != null ? region.getStartOffset() : -1,
+            region != null ? region.getEndOffset() : -1,
+            text
+        );
+        final @Nullable ArrayDeque<IMarker> markers = existing.get(key);
+        if(markers != null) {
+            markers.poll();
+            if(markers.isEmpty()) {
+                existing.remove(key);
+            }
+        } else {
+            create.add(key);
+        }
+    }
+
+    /**
+     * Deletes markers that were cleared and not added again in one batch, and creates markers that were added and did
+     * not exist yet. Should be run inside a workspace runnable, such that resource change events are batched.
+     */
+    public void apply(IWorkspace workspace) throws CoreException {
+        if(!existing.isEmpty()) {
+            final ArrayList<IMarker> delete = new ArrayList<>();
+            for(ArrayDeque<IMarker> markers : existing.values()) {
+                delete.addAll(markers);
+            }
+            workspace.deleteMarkers(delete.toArray(new IMarker[0]));
+            existing.clear();
+        }
+        for(MarkerKey key : create) {
+            final @Nullable Region region = key.charStart != -1 ? Region.fromOffsets(key.charStart, key.charEnd) : null;
+            MarkerUtil.createMarker(key.type, key.text, key.severity, key.resource, region);
+        }
+        create.clear();
+    }
+
+
+    private static class MarkerKey {
+        private final IResource resource;
+        private final String type;
+        private final int severity;
+        private final int charStart;
+        private final int charEnd;
+        private final String text;
+        private final int hashCode;
+
+
+        private MarkerKey(IResource resource, String type, int severity, int charStart, int charEnd, String text) {
+            this.resource = resource;
+            this.type = type;
+            this.severity = severity;
+            this.charStart = charStart;
+            this.charEnd = charEnd;
+            this.text = text;
+            this.hashCode = Objects.hash(resource, type, severity, charStart, charEnd, text);
+        }
+
+
+        @Override public boolean equals(@Nullable Object o) {
+            if(this == o) return true;
+            if(o == null || getClass() != o.getClass()) return false;
+            final MarkerKey other = (MarkerKey) o;
+            return severity == other.severity &&
+                charStart == other.charStart &&
+                charEnd == other.charEnd &&
+                resource.equals(other.resource) &&
+                type.equals(other.type) &&
+                text.equals(other.text);
+        }
+
+        @Override public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -21,16 +21,29 @@ public final class MarkerUtil {
     ) throws CoreException {
         final int eclipseSeverity = severity(severity);
         final String markerId = id(eclipseIdentifiers, eclipseSeverity);
+        return createMarker(markerId, text, eclipseSeverity, resource, region);
+    }
+
+    static IMarker createMarker(
+        String markerId,
+        String text,
+        int eclipseSeverity,
+        IResource resource,
+        @Nullable Region region
+    ) throws CoreException {
         final IMarker marker = resource.createMarker(markerId);
+        // Set all attributes at once, which results in a single marker change instead of one per attribute.
         if(region != null) {
-            marker.setAttribute(IMarker.CHAR_START, region.getStartOffset());
-            marker.setAttribute(IMarker.CHAR_END, region.getEndOffset());
+            marker.setAttributes(
+                new String[]{IMarker.CHAR_START, IMarker.CHAR_END, IMarker.MESSAGE, IMarker.SEVERITY, IMarker.PRIORITY},
+                new Object[]{region.getStartOffset(), region.getEndOffset(), text, eclipseSeverity, IMarker.PRIORITY_NORMAL}
+            );
         } else {
-            marker.setAttribute(IMarker.LINE_NUMBER, 1);
+            marker.setAttributes(
+                new String[]{IMarker.LINE_NUMBER, IMarker.MESSAGE, IMarker.SEVERITY, IMarker.PRIORITY},
+                new Object[]{1, text, eclipseSeverity, IMarker.PRIORITY_NORMAL}
+            );
         }
-        marker.setAttribute(IMarker.MESSAGE, text);
-        marker.setAttribute(IMarker.SEVERITY, eclipseSeverity);
-        marker.setAttribute(IMarker.PRIORITY, IMarker.PRIORITY_NORMAL);
         return marker;
     }
 
@@ -43,7 +56,7 @@ public final class MarkerUtil {
     }
 
 
-    private static int severity(Severity severity) {
+    static int severity(Severity severity) {
         switch(severity) {
             case Info:
                 return IMarker.SEVERITY_INFO;
@@ -56,7 +69,7 @@ public final class MarkerUtil {
         }
     }
 
-    private static String id(EclipseIdentifiers eclipseIdentifiers, int severity) {
+    static String id(EclipseIdentifiers eclipseIdentifiers, int severity) {
         switch(severity) {
             case IMarker.SEVERITY_INFO:
                 return eclipseIdentifiers.getInfoMarker();
@@ -1,7 +1,9 @@
 package mb.spoofax.eclipse.util;
 
+import mb.common.style.CompactStyling;
 import mb.common.style.Style;
 import mb.common.style.Styling;
+import mb.common.style.StylingDelta;
 import mb.common.style.TokenStyle;
 import mb.log.api.Logger;
 import mb.log.api.LoggerFactory;
@@ -44,59 +46,88 @@ public final class StyleUtil {
         return presentation;
     }
 
-    public ArrayList<TokenStyle> validateStyling(Styling styling, int length) {
+    public TextPresentation createTextPresentation(Styling styling, int length) {
+        final TextPresentation presentation = new TextPresentation();
+        addStyleRanges(presentation, styling, 0, styling.size(), length);
+        @Nullable IRegion extent = presentation.getExtent();
+        if(extent == null) {
+            extent = new Region(0, 0);
+        }
+        presentation.setDefaultStyleRange(createDefaultStyleRange(extent.getOffset(), extent.getLength()));
+        return presentation;
+    }
+
+    /**
+     * Creates a text presentation for the damaged region of given {@code delta}, which resets the styles in that region
+     * and restyles the tokens in it, leaving styles outside of the region untouched.
+     */
+    public TextPresentation createTextPresentation(StylingDelta delta) {
+        if(delta.isFull()) {
+            return createTextPresentation(delta.getStyling(), delta.getTextLength());
+        }
+        final TextPresentation presentation = new TextPresentation();
+        addStyleRanges(presentation, delta.getStyling(), delta.getStartIndex(), delta.getEndIndex(), delta.getTextLength());
+        final mb.common.region.Region region = delta.getRegion();
+        presentation.setDefaultStyleRange(createDefaultStyleRange(region.getStartOffset(), region.length()));
+        return presentation;
+    }
+
+    private void addStyleRanges(TextPresentation presentation, Styling styling, int startIndex, int endIndex, int length) {
+        // Compact stylings identify their distinct styles, so convert each distinct style (and its colors) once, and
+        // copy the converted style range per token.
+        final @Nullable CompactStyling compactStyling = styling instanceof CompactStyling ? (CompactStyling) styling : null;
+        final @Nullable StyleRange @Nullable [] styleRanges = compactStyling != null ? new StyleRange[compactStyling.getStyleCount()] : null;
         int offset = -1;
-        final ArrayList<TokenStyle> validated = new ArrayList<>();
-        for(TokenStyle tokenStyle : styling.getStylePerToken()) {
-            final mb.common.region.Region region = tokenStyle.getToken().getRegion();
-            if(offset >= region.getStartOffset()) {
-                logger.warn("Skipping invalid {}, starting offset is greater than offset in previous regions",
-                    tokenStyle);
-            } else if(offset >= region.getEndOffsetInclusive()) {
-                logger.warn("Skipping invalid {}, ending offset is greater than offset in previous regions",
-                    tokenStyle);
-            } else if(region.getStartOffset() > region.getEndOffsetInclusive()) {
-                logger.warn("Skipping invalid {}, starting offset is greater than ending offset", tokenStyle);
-            } else if(region.getStartOffset() > length) {
-                logger.warn("Skipping invalid {}, starting offset is greater than text length", tokenStyle);
-            } else if(region.getEndOffsetInclusive() >= length) {
-                logger.warn("Skipping invalid {}, ending offset is greater than text length", tokenStyle);
+        for(int i = startIndex; i < endIndex; ++i) {
+            final int startOffset = styling.getStartOffset(i);
+            final int endOffsetInclusive = styling.getEndOffset(i) - 1;
+            if(offset >= startOffset) {
+                logger.warn("Skipping invalid style at index {}, starting offset is greater than offset in previous regions", i);
+            } else if(offset >= endOffsetInclusive) {
+                logger.warn("Skipping invalid style at index {}, ending offset is greater than offset in previous regions", i);
+            } else if(startOffset > endOffsetInclusive) {
+                logger.warn("Skipping invalid style at index {}, starting offset is greater than ending offset", i);
+            } else if(startOffset > length) {
+                logger.warn("Skipping invalid style at index {}, starting offset is greater than text length", i);
+            } else if(endOffsetInclusive >= length) {
+                logger.warn("Skipping invalid style at index {}, ending offset is greater than text length", i);
+            } else if(compactStyling != null && styleRanges != null) {
+                final int id = compactStyling.getStyleId(i);
+                @Nullable StyleRange styleRange = styleRanges[id];
+                if(styleRange == null) {
+                    styleRange = createStyleRange(compactStyling.getStyleById(id), 0, 0);
+                    styleRanges[id] = styleRange;
+                }
+                presentation.addStyleRange(copyStyleRange(styleRange, startOffset, endOffsetInclusive + 1 - startOffset));
+                offset = endOffsetInclusive;
             } else {
-                validated.add(tokenStyle);
-                offset = region.getEndOffsetInclusive();
+                presentation.addStyleRange(createStyleRange(styling.getStyle(i), startOffset, endOffsetInclusive + 1 - startOffset));
+                offset = endOffsetInclusive;
             }
         }
-        return validated;
     }
 
-    public TextPresentation createTextPresentation(Styling styling, int length) {
-        final ArrayList<TokenStyle> validated = validateStyling(styling, length);
-        return createTextPresentation(validated);
+    private static StyleRange copyStyleRange(StyleRange styleRange, int start, int length) {
+        final StyleRange copy = new StyleRange(styleRange);
+        copy.start = start;
+        copy.length = length;
+        return copy;
     }
 
-    public TextPresentation createTextPresentation(ArrayList<TokenStyle> stylePerToken) {
-        final TextPresentation presentation = new TextPresentation();
-        for(TokenStyle tokenStyle : stylePerToken) {
-            final StyleRange styleRange = createStyleRange(tokenStyle);
-            presentation.addStyleRange(styleRange);
-        }
-        @Nullable IRegion extent = presentation.getExtent();
-        if(extent == null) {
-            extent = new Region(0, 0);
-        }
+    private StyleRange createDefaultStyleRange(int start, int length) {
         final StyleRange defaultStyleRange = new StyleRange();
-        defaultStyleRange.start = extent.getOffset();
-        defaultStyleRange.length = extent.getLength();
+        defaultStyleRange.start = start;
+        defaultStyleRange.length = length;
         defaultStyleRange.foreground = createColor(mb.common.style.Color.black);
-        presentation.setDefaultStyleRange(defaultStyleRange);
-
-        return presentation;
+        return defaultStyleRange;
     }
 
     public StyleRange createStyleRange(TokenStyle tokenStyle) {
-        final Style style = tokenStyle.getStyle();
         final mb.common.region.Region region = tokenStyle.getToken().getRegion();
+        return createStyleRange(tokenStyle.getStyle(), region.getStartOffset(), region.length());
+    }
 
+    public StyleRange createStyleRange(Style style, int start, int length) {
         final StyleRange styleRange = new StyleRange();
         final mb.common.style.@Nullable Color foreground = style.getColor();
         if(foreground != null) {
@@ -119,8 +150,8 @@ public final class StyleUtil {
             styleRange.strikeout = true;
         }
 
-        styleRange.start = region.getStartOffset();
-        styleRange.length = region.length();
+        styleRange.start = start;
+        styleRange.length = length;
 
         return styleRange;
     }
@@ -10,6 +10,9 @@ import org.spoofax.interpreter.terms.ITermFactory;
 import org.strategoxt.HybridInterpreter;
 
 public class StrategoRuntime {
+    // IO agent of runtimes that are not being invoked, which is never used, as each invocation sets its own IO agent.
+    private static final IOAgent idleIOAgent = new IOAgent();
+
     final HybridInterpreter hybridInterpreter;
 
 
@@ -39,6 +42,18 @@ public class StrategoRuntime {
     }
 
 
+    /**
+     * Resets the per-invocation state of this runtime, such that it does not retain the input, output, IO agent, or
+     * context object of the previous invocation.
+     */
+    void reset() {
+        hybridInterpreter.setCurrent(getTermFactory().makeTuple());
+        hybridInterpreter.setIOAgent(idleIOAgent);
+        hybridInterpreter.getContext().setContextObject(null);
+        hybridInterpreter.getCompiledContext().setContextObject(null);
+    }
+
+
     public ITermFactory getTermFactory() {
         return hybridInterpreter.getFactory();
     }
@@ -0,0 +1,88 @@
+package mb.stratego.common;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spoofax.interpreter.library.IOAgent;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.interpreter.terms.ITermFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded, thread-safe pool of {@link StrategoRuntime Stratego runtimes}, built from a single prototype runtime.
+ *
+ * A Stratego runtime is stateful and may not be used by multiple threads at the same time, and building one from a
+ * prototype re-registers all libraries and initializes the interpreter, which is too expensive to do for each
+ * invocation. Instead, a runtime is borrowed with {@link #borrow()}, and must be returned with {@link
+ * #release(StrategoRuntime)} after use, which resets its per-invocation state (current term, IO agent, and context
+ * object). Borrowing never blocks: when no idle runtime is available, a new one is built from the prototype. At most
+ * {@code capacity} idle runtimes are retained, further released runtimes are discarded.
+ */
+public class StrategoRuntimePool {
+    private final StrategoRuntimeBuilder builder;
+    private final StrategoRuntime prototype;
+    private final ArrayBlockingQueue<StrategoRuntime> idleRuntimes;
+
+
+    public StrategoRuntimePool(StrategoRuntimeBuilder builder, StrategoRuntime prototype, int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Capacity " + capacity + " must be larger than zero");
+        }
+        this.builder = builder;
+        this.prototype = prototype;
+        this.idleRuntimes = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public StrategoRuntimePool(StrategoRuntimeBuilder builder, StrategoRuntime prototype) {
+        this(builder, prototype, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    public ITermFactory getTermFactory() {
+        return prototype.getTermFactory();
+    }
+
+
+    /**
+     * Borrows an idle Stratego runtime from the pool, or builds a new one from the prototype if the pool is empty.
+     */
+    public StrategoRuntime borrow() {
+        final @Nullable StrategoRuntime runtime = idleRuntimes.poll();
+        if(runtime != null) {
+            return runtime;
+        }
+        return builder.buildFromPrototype(prototype);
+    }
+
+    /**
+     * Resets given {@code runtime} and returns it to the pool, or discards it if the pool is full.
+     */
+    public void release(StrategoRuntime runtime) {
+        runtime.reset();
+        idleRuntimes.offer(runtime);
+    }
+
+
+    /**
+     * Invokes {@code strategy} on {@code input} with a Stratego runtime borrowed from this pool. The runtime is only
+     * returned to the pool when the invocation completes normally or fails with a {@link StrategoException}; runtimes
+     * that throw an unexpected exception are discarded.
+     *
+     * @see StrategoRuntime#invoke(String, IStrategoTerm, IOAgent, Object)
+     */
+    public @Nullable IStrategoTerm invoke(String strategy, IStrategoTerm input, IOAgent ioAgent, @Nullable Object contextObject) throws StrategoException {
+        final StrategoRuntime runtime = borrow();
+        final @Nullable IStrategoTerm result;
+        try {
+            result = runtime.invoke(strategy, input, ioAgent, contextObject);
+        } catch(StrategoException e) {
+            release(runtime);
+            throw e;
+        }
+        release(runtime);
+        return result;
+    }
+
+    public @Nullable IStrategoTerm invoke(String strategy, IStrategoTerm input, IOAgent ioAgent) throws StrategoException {
+        return invoke(strategy, input, ioAgent, null);
+    }
+}